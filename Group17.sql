@@ -40,13 +40,32 @@ CREATE TABLE contacts (
     email VARCHAR(150) NOT NULL UNIQUE,
     linkedin_url VARCHAR(255),
     birth_date DATE NOT NULL,
+    -- Turkish-aware collation keys of the names, filled in by the application
+    first_name_key VARCHAR(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    last_name_key VARCHAR(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    -- Search keys of the text fields (Turkish case folding, no diacritics)
+    first_name_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    middle_name_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    last_name_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    nickname_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    phone_primary_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    phone_secondary_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    email_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
+    linkedin_url_search VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_first_name (first_name),
     INDEX idx_last_name (last_name),
     INDEX idx_email (email),
     INDEX idx_phone (phone_primary),
-    INDEX idx_birth_date (birth_date)
+    INDEX idx_birth_date (birth_date),
+    INDEX idx_first_name_key (first_name_key),
+    INDEX idx_last_name_key (last_name_key),
+    INDEX idx_first_name_search (first_name_search),
+    INDEX idx_last_name_search (last_name_search),
+    INDEX idx_nickname_search (nickname_search),
+    INDEX idx_phone_primary_search (phone_primary_search),
+    INDEX idx_email_search (email_search)
 ) ENGINE=InnoDB CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 
 -- ============================================================================
@@ -51,7 +51,11 @@ echo ========================================================
 echo.
 
 REM Run the application with UTF-8 encoding
-java -Dfile.encoding=UTF-8 -cp ".;%MYSQL_JAR%" Main
+REM Extra arguments run a non-interactive command, e.g.
+REM   run.bat import C:\path\to\contacts.csv
+REM   run.bat export C:\path\to\contacts.csv.gz csv --gzip
+REM (relative file paths are resolved against the src directory)
+java -Dfile.encoding=UTF-8 -cp ".;%MYSQL_JAR%" Main %*
 
 REM Return to project root
 cd ..
@@ -47,7 +47,11 @@ echo "========================================================"
 echo ""
 
 # Run the application with UTF-8 encoding
-java -Dfile.encoding=UTF-8 -cp ".:$MYSQL_JAR" Main
+# Extra arguments run a non-interactive command, e.g.
+#   ./run.sh import /path/to/contacts.csv
+#   ./run.sh export /path/to/contacts.csv.gz csv --gzip
+# (relative file paths are resolved against the src directory)
+java -Dfile.encoding=UTF-8 -cp ".:$MYSQL_JAR" Main "$@"
 
 # Return to project root
 cd ..
@@ -1,4 +1,9 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import managers.ContactExporter;
+import managers.ContactImporter;
+import managers.ContactManager;
 import managers.DatabaseManager;
 import managers.UserManager;
 import models.User;
@@ -30,9 +35,17 @@ public class Main {
     /**
      * Main method that initializes the system and handles the login process.
      *
-     * @param args Command line arguments (not used)
+     * When arguments are given, runs them as a non-interactive command
+     * instead (see {@link #runCommand(String[])}).
+     *
+     * @param args Command line arguments, e.g. "import contacts.csv" or
+     *             "export contacts.jsonl.gz jsonl --gzip"
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(runCommand(args));
+        }
+
         try {
             // Set UTF-8 encoding for Turkish character support
             System.setProperty("file.encoding", "UTF-8");
@@ -43,6 +56,7 @@ public class Main {
             // Initialize database connection
             dbManager = new DatabaseManager();
             userManager = new UserManager(dbManager);
+            new ContactManager(dbManager).backfillKeys();
 
             // Main application loop
             boolean running = true;
@@ -242,4 +256,139 @@ public class Main {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Runs a non-interactive command and returns the process exit code.
+     * Supported commands:
+     * <ul>
+     *   <li>import &lt;file&gt; - bulk-imports contacts from a CSV or TSV file</li>
+     *   <li>export &lt;file&gt; [csv|jsonl] [--gzip] - writes all contacts to a file</li>
+     * </ul>
+     *
+     * @param args The command and its arguments
+     * @return 0 on success, 1 on failure, 2 on invalid usage
+     */
+    private static int runCommand(String[] args) {
+        String command = args[0].toLowerCase();
+        boolean validUsage =
+            (command.equals("import") && args.length == 2) ||
+            (command.equals("export") && args.length >= 2 && args.length <= 4);
+        if (!validUsage) {
+            printCommandUsage();
+            return 2;
+        }
+
+        try {
+            dbManager = new DatabaseManager();
+            ContactManager contactManager = new ContactManager(dbManager);
+            contactManager.backfillKeys();
+
+            if (command.equals("import")) {
+                return importContacts(contactManager, args[1]);
+            }
+            return exportContacts(contactManager, args);
+        } catch (IOException e) {
+            System.err.println(
+                ColorUtils.colorize(
+                    "Command failed: " + e.getMessage(),
+                    ColorUtils.RED
+                )
+            );
+            return 1;
+        } catch (Exception e) {
+            System.err.println(
+                ColorUtils.colorize(
+                    "Critical error: " + e.getMessage(),
+                    ColorUtils.RED
+                )
+            );
+            e.printStackTrace();
+            return 1;
+        } finally {
+            if (dbManager != null) {
+                dbManager.closeConnection();
+            }
+        }
+    }
+
+    /**
+     * Runs the import command.
+     *
+     * @param contactManager The ContactManager to write through
+     * @param file           The CSV or TSV file to import
+     * @return The process exit code
+     * @throws IOException If the file cannot be read
+     */
+    private static int importContacts(ContactManager contactManager, String file)
+        throws IOException {
+        ContactImporter importer = new ContactImporter(contactManager);
+
+        long start = System.currentTimeMillis();
+        ContactImporter.ImportSummary summary = importer.importFile(Paths.get(file));
+        long elapsed = System.currentTimeMillis() - start;
+
+        System.out.println(
+            ColorUtils.colorize(
+                "Import finished in " + elapsed + " ms. " + summary,
+                ColorUtils.GREEN
+            )
+        );
+        for (String error : summary.getErrors()) {
+            System.out.println(ColorUtils.colorize("  " + error, ColorUtils.YELLOW));
+        }
+        return 0;
+    }
+
+    /**
+     * Runs the export command.
+     *
+     * @param contactManager The ContactManager to read through
+     * @param args           The command line: export &lt;file&gt; [csv|jsonl] [--gzip]
+     * @return The process exit code
+     * @throws IOException If the file cannot be written
+     */
+    private static int exportContacts(ContactManager contactManager, String[] args)
+        throws IOException {
+        ContactExporter.Format format = ContactExporter.Format.CSV;
+        boolean gzip = false;
+
+        for (int i = 2; i < args.length; i++) {
+            String option = args[i].toLowerCase();
+            if (option.equals("--gzip")) {
+                gzip = true;
+            } else if (option.equals("csv")) {
+                format = ContactExporter.Format.CSV;
+            } else if (option.equals("jsonl")) {
+                format = ContactExporter.Format.JSONL;
+            } else {
+                printCommandUsage();
+                return 2;
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        int count = new ContactExporter(contactManager).exportAll(
+            Paths.get(args[1]),
+            format,
+            gzip
+        );
+        long elapsed = System.currentTimeMillis() - start;
+
+        System.out.println(
+            ColorUtils.colorize(
+                "Exported " + count + " contacts to " + args[1] + " in " + elapsed + " ms.",
+                ColorUtils.GREEN
+            )
+        );
+        return 0;
+    }
+
+    /**
+     * Prints the usage of the non-interactive commands.
+     */
+    private static void printCommandUsage() {
+        System.err.println("Usage:");
+        System.err.println("  java Main import <file.csv|file.tsv>");
+        System.err.println("  java Main export <file> [csv|jsonl] [--gzip]");
+    }
 }
@@ -0,0 +1,437 @@
+package managers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConnectionPool class keeping a bounded set of reusable JDBC connections.
+ * Connections handed out by {@link #borrow()} are proxies: calling close() on
+ * them returns the physical connection to the pool instead of closing it, so
+ * callers can keep using try-with-resources as before.
+ * Idle connections above the minimum size are evicted in the background and
+ * connections that sat idle for a while are validated before being reused.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ConnectionPool {
+
+    /** Idle time after which a connection is validated again before reuse */
+    private static final long VALIDATION_IDLE_MS = 5_000;
+
+    /** Timeout in seconds passed to Connection.isValid during validation */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** How often the background evictor looks for idle connections */
+    private static final long EVICTION_INTERVAL_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long leaseTimeoutMs;
+
+    private final Deque<PooledEntry> idleConnections = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private int totalConnections;
+    private boolean closed;
+
+    /**
+     * A physical connection together with the time it was last returned.
+     */
+    private static class PooledEntry {
+
+        private final Connection physical;
+        private long lastUsed;
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+            this.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Constructor for ConnectionPool.
+     *
+     * @param url            The JDBC URL to connect to
+     * @param user           The database user
+     * @param password       The database password
+     * @param minSize        The number of connections kept open at all times
+     * @param maxSize        The maximum number of open connections
+     * @param idleTimeoutMs  Idle time after which surplus connections are closed
+     * @param leaseTimeoutMs Maximum time borrow() waits for a free connection
+     */
+    public ConnectionPool(
+        String url,
+        String user,
+        String password,
+        int minSize,
+        int maxSize,
+        long idleTimeoutMs,
+        long leaseTimeoutMs
+    ) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException(
+                "Invalid pool size: min=" + minSize + ", max=" + maxSize
+            );
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leaseTimeoutMs = leaseTimeoutMs;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(
+            this::evictIdleConnections,
+            EVICTION_INTERVAL_MS,
+            EVICTION_INTERVAL_MS,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Opens the minimum number of connections up front.
+     * Fails fast if the database cannot be reached.
+     *
+     * @throws SQLException If a connection cannot be established
+     */
+    public void warmUp() throws SQLException {
+        while (true) {
+            synchronized (this) {
+                if (totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            }
+            Connection physical;
+            try {
+                physical = openPhysicalConnection();
+            } catch (SQLException e) {
+                synchronized (this) {
+                    totalConnections--;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                idleConnections.addFirst(new PooledEntry(physical));
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Leases a connection from the pool.
+     * Waits up to the lease timeout if all connections are in use.
+     *
+     * @return A pooled connection; closing it returns it to the pool
+     * @throws SQLException If the pool is closed, the wait times out or a new
+     *                      connection cannot be established
+     */
+    public Connection borrow() throws SQLException {
+        long deadline = System.currentTimeMillis() + leaseTimeoutMs;
+
+        while (true) {
+            PooledEntry entry = null;
+            boolean createNew = false;
+
+            synchronized (this) {
+                while (entry == null && !createNew) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+
+                    entry = idleConnections.pollFirst();
+                    if (entry == null && totalConnections < maxSize) {
+                        totalConnections++;
+                        createNew = true;
+                    }
+
+                    if (entry == null && !createNew) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            throw new SQLException(
+                                "Timed out after " + leaseTimeoutMs +
+                                " ms waiting for a database connection"
+                            );
+                        }
+                        try {
+                            wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException(
+                                "Interrupted while waiting for a database connection", e
+                            );
+                        }
+                    }
+                }
+            }
+
+            if (createNew) {
+                try {
+                    return wrap(new PooledEntry(openPhysicalConnection()));
+                } catch (SQLException e) {
+                    forgetConnection();
+                    throw e;
+                }
+            }
+
+            if (isUsable(entry)) {
+                return wrap(entry);
+            }
+
+            // Stale connection (e.g. killed by the server's wait_timeout), try again
+            closeQuietly(entry.physical);
+            forgetConnection();
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops handing out new ones.
+     * Connections that are still leased are closed when they are returned.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (PooledEntry entry : idleConnections) {
+                closeQuietly(entry.physical);
+                totalConnections--;
+            }
+            idleConnections.clear();
+            notifyAll();
+        }
+        evictor.shutdownNow();
+    }
+
+    /**
+     * Gets the number of physical connections currently open.
+     *
+     * @return The open connection count (idle and leased)
+     */
+    public synchronized int getTotalConnections() {
+        return totalConnections;
+    }
+
+    /**
+     * Gets the number of idle connections waiting in the pool.
+     *
+     * @return The idle connection count
+     */
+    public synchronized int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Wraps a connection so that close() is ignored.
+     * Used to hand out a connection that is pinned to an open transaction.
+     *
+     * @param connection The connection to wrap
+     * @return A view of the connection whose close() does nothing
+     */
+    public static Connection nonClosingView(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    return null;
+                }
+                return invokeTarget(connection, method, args);
+            }
+        );
+    }
+
+    /**
+     * Returns a physical connection to the idle list, or closes it if it is
+     * broken or the pool has been shut down.
+     *
+     * @param entry The entry being returned
+     */
+    private void release(PooledEntry entry) {
+        boolean healthy;
+        try {
+            healthy = !entry.physical.isClosed();
+            if (healthy && !entry.physical.getAutoCommit()) {
+                // Never hand an open transaction to the next borrower
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        synchronized (this) {
+            if (healthy && !closed) {
+                entry.lastUsed = System.currentTimeMillis();
+                idleConnections.addFirst(entry);
+                notifyAll();
+                return;
+            }
+        }
+
+        closeQuietly(entry.physical);
+        forgetConnection();
+    }
+
+    /**
+     * Forgets about a physical connection that has been (or failed to be) closed.
+     */
+    private synchronized void forgetConnection() {
+        totalConnections--;
+        notifyAll();
+    }
+
+    /**
+     * Closes idle connections that have not been used for the idle timeout,
+     * never dropping below the minimum pool size.
+     */
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Deque<PooledEntry> evicted = new ArrayDeque<>();
+
+        synchronized (this) {
+            // Oldest entries sit at the tail because returns go to the head
+            Iterator<PooledEntry> it = idleConnections.descendingIterator();
+            while (it.hasNext() && totalConnections > minSize) {
+                PooledEntry entry = it.next();
+                if (entry.lastUsed > cutoff) {
+                    break;
+                }
+                it.remove();
+                totalConnections--;
+                evicted.add(entry);
+            }
+        }
+
+        for (PooledEntry entry : evicted) {
+            closeQuietly(entry.physical);
+        }
+    }
+
+    /**
+     * Checks whether an idle connection can be handed out again.
+     *
+     * @param entry The idle entry
+     * @return true if the connection is open and, when needed, passed validation
+     */
+    private boolean isUsable(PooledEntry entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.lastUsed < VALIDATION_IDLE_MS) {
+                return true;
+            }
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a new physical connection to the database.
+     *
+     * @return The new connection
+     * @throws SQLException If the connection cannot be established
+     */
+    private Connection openPhysicalConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    /**
+     * Creates the proxy handed to callers for a leased connection.
+     *
+     * @param entry The leased entry
+     * @return A Connection proxy returning the entry to the pool on close()
+     */
+    private Connection wrap(PooledEntry entry) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean returned;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+                throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!returned) {
+                            returned = true;
+                            release(entry);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned || entry.physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled" + entry.physical;
+                    default:
+                        if (returned) {
+                            throw new SQLException(
+                                "Connection has already been returned to the pool"
+                            );
+                        }
+                        return invokeTarget(entry.physical, method, args);
+                }
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            handler
+        );
+    }
+
+    /**
+     * Invokes a method on the real connection, unwrapping reflection errors so
+     * callers see the original SQLException.
+     *
+     * @param target The real connection
+     * @param method The method to invoke
+     * @param args   The method arguments
+     * @return The method result
+     * @throws Throwable The exception thrown by the target method
+     */
+    private static Object invokeTarget(Connection target, Method method, Object[] args)
+        throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Closes a physical connection, ignoring errors.
+     *
+     * @param connection The connection to close
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Connection is being discarded anyway
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package managers;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import models.Contact;
+import utils.SearchKeyUtils;
+
+/**
+ * ContactCache class keeping recently used contacts in memory.
+ * Contacts are held in an access-ordered map keyed by ID with a secondary
+ * index by email, and the least recently used entry is evicted once the
+ * capacity is reached. The cache is updated write-through: it listens to
+ * every contact write made through the owning ContactManager, so a user
+ * always reads back their own changes. Entries expire after a short time
+ * so that writes made by other clients become visible again.
+ *
+ * When a full table load fits into the cache, the cache is marked complete
+ * and can also answer "not found" (e.g. for email checks) on its own until
+ * something is evicted or expires.
+ *
+ * Contacts are copied on the way in and out, so callers can modify the
+ * objects they receive without corrupting the cache.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactCache implements ContactChangeListener {
+
+    /** Index of the email field's cached search key */
+    private static final int EMAIL_KEY = Contact.searchKeyIndex("email");
+
+    private final int capacity;
+    private final long timeToLiveMs;
+
+    private final LinkedHashMap<Integer, Entry> entries;
+    private final Map<String, Integer> idsByEmail = new HashMap<>();
+    private long completeSince = -1;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * A cached contact together with the time it was stored.
+     */
+    private static class Entry {
+
+        private final Contact contact;
+        private final long storedAt;
+
+        Entry(Contact contact, long storedAt) {
+            this.contact = contact;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Constructor for ContactCache.
+     *
+     * @param capacity     The maximum number of contacts kept
+     * @param timeToLiveMs How long a cached contact may be served
+     */
+    public ContactCache(int capacity, long timeToLiveMs) {
+        this.capacity = capacity;
+        this.timeToLiveMs = timeToLiveMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets a contact by ID.
+     *
+     * @param contactId The contact ID
+     * @return A copy of the cached contact, or null on a cache miss
+     */
+    public synchronized Contact get(int contactId) {
+        Entry entry = entries.get(contactId);
+        if (entry == null || isExpired(entry)) {
+            if (entry != null) {
+                remove(contactId);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return copy(entry.contact);
+    }
+
+    /**
+     * Gets all contacts, if the cache is known to hold all of them.
+     *
+     * @return Copies of all contacts ordered by ID, or null if the cache is
+     *         not complete
+     */
+    public synchronized List<Contact> getAll() {
+        return findAll(contact -> true);
+    }
+
+    /**
+     * Gets all contacts matching a filter, if the cache is known to hold all
+     * contacts. Only the matches are copied.
+     *
+     * @param filter The filter, e.g. a compiled search
+     * @return Copies of the matching contacts ordered by ID, or null if the
+     *         cache is not complete
+     */
+    public synchronized List<Contact> findAll(Predicate<Contact> filter) {
+        if (!isComplete()) {
+            misses++;
+            return null;
+        }
+        hits++;
+
+        List<Contact> contacts = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (filter.test(entry.contact)) {
+                contacts.add(copy(entry.contact));
+            }
+        }
+        contacts.sort((c1, c2) -> Integer.compare(c1.getContactId(), c2.getContactId()));
+        return contacts;
+    }
+
+    /**
+     * Looks up which contact has an email address.
+     *
+     * @param email The email address
+     * @return The contact ID; 0 if the cache is complete and no contact has
+     *         the email; null if the cache cannot tell
+     */
+    public synchronized Integer findIdByEmail(String email) {
+        String emailKey = SearchKeyUtils.searchKey(email);
+        Integer id = idsByEmail.get(emailKey);
+        if (id != null) {
+            Entry entry = entries.get(id);
+            if (entry != null && !isExpired(entry)) {
+                hits++;
+                return id;
+            }
+            remove(id);
+            idsByEmail.remove(emailKey, id);
+        }
+        if (isComplete()) {
+            hits++;
+            return 0;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores a contact read from the database.
+     *
+     * @param contact The contact
+     */
+    public synchronized void put(Contact contact) {
+        store(copy(contact));
+    }
+
+    /**
+     * Replaces the cache content with a full load of the contacts table,
+     * which makes the cache complete. A load larger than the capacity is
+     * ignored: storing it would evict almost every row again and push out
+     * the contacts that are actually being reused.
+     *
+     * @param contacts All contacts
+     */
+    public synchronized void putAll(List<Contact> contacts) {
+        if (contacts.size() > capacity) {
+            return;
+        }
+        clear();
+        for (Contact contact : contacts) {
+            store(copy(contact));
+        }
+        completeSince = System.currentTimeMillis();
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        idsByEmail.clear();
+        completeSince = -1;
+    }
+
+    /**
+     * Gets the cache metrics.
+     *
+     * @return Map with size, capacity, complete, hits, misses, hitRatio and evictions
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("capacity", capacity);
+        metrics.put("complete", isComplete());
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        long lookups = hits + misses;
+        metrics.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        metrics.put("evictions", evictions);
+        return metrics;
+    }
+
+    @Override
+    public synchronized void contactAdded(Contact contact) {
+        Contact cached = copy(contact);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (cached.getCreatedAt() == null) {
+            cached.setCreatedAt(now);
+        }
+        if (cached.getUpdatedAt() == null) {
+            cached.setUpdatedAt(now);
+        }
+        store(cached);
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact before, Contact after) {
+        remove(before.getContactId());
+        Contact cached = copy(after);
+        cached.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+        store(cached);
+    }
+
+    @Override
+    public synchronized void contactRemoved(Contact contact) {
+        remove(contact.getContactId());
+    }
+
+    /**
+     * Checks whether the cache holds every contact of the table.
+     *
+     * @return true if the last full load fit and nothing was evicted since
+     */
+    private boolean isComplete() {
+        if (completeSince < 0) {
+            return false;
+        }
+        if (System.currentTimeMillis() - completeSince > timeToLiveMs) {
+            clear();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an entry is too old to be served.
+     *
+     * @param entry The entry
+     * @return true if the entry has expired
+     */
+    private boolean isExpired(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAt > timeToLiveMs;
+    }
+
+    /**
+     * Stores a contact (already copied), evicting the least recently used
+     * entry if the cache is full.
+     *
+     * @param contact The contact to store
+     */
+    private void store(Contact contact) {
+        remove(contact.getContactId());
+        long now = System.currentTimeMillis();
+        entries.put(contact.getContactId(), new Entry(contact, now));
+        if (contact.getEmail() != null) {
+            idsByEmail.put(
+                contact.getSearchKey(EMAIL_KEY),
+                contact.getContactId()
+            );
+        }
+
+        if (entries.size() > capacity) {
+            Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+            Contact evicted = eldest.next().getValue().contact;
+            eldest.remove();
+            forgetEmail(evicted);
+            evictions++;
+            completeSince = -1;
+        }
+    }
+
+    /**
+     * Removes a contact and its email index entry.
+     *
+     * @param contactId The contact ID
+     */
+    private void remove(int contactId) {
+        Entry entry = entries.remove(contactId);
+        if (entry != null) {
+            forgetEmail(entry.contact);
+        }
+    }
+
+    /**
+     * Drops the email index entry of a contact if it still points to it.
+     *
+     * @param contact The contact
+     */
+    private void forgetEmail(Contact contact) {
+        if (contact.getEmail() != null) {
+            idsByEmail.remove(
+                contact.getSearchKey(EMAIL_KEY),
+                contact.getContactId()
+            );
+        }
+    }
+
+    /**
+     * Copies a contact.
+     *
+     * @param contact The contact
+     * @return An independent copy
+     */
+    private static Contact copy(Contact contact) {
+        return new Contact(
+            contact.getContactId(),
+            contact.getFirstName(),
+            contact.getMiddleName(),
+            contact.getLastName(),
+            contact.getNickname(),
+            contact.getPhonePrimary(),
+            contact.getPhoneSecondary(),
+            contact.getEmail(),
+            contact.getLinkedinUrl(),
+            contact.getBirthDate(),
+            contact.getCreatedAt(),
+            contact.getUpdatedAt()
+        );
+    }
+}
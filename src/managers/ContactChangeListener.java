@@ -0,0 +1,63 @@
+package managers;
+
+import java.util.List;
+import models.Contact;
+
+/**
+ * ContactChangeListener interface for in-memory structures that mirror the
+ * contacts table and must stay in sync with every write made through
+ * {@link ContactManager}.
+ * Demonstrates the Observer pattern: ContactManager notifies every registered
+ * listener after a write has been committed to the database.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public interface ContactChangeListener {
+
+    /**
+     * Called after a contact has been inserted.
+     *
+     * @param contact The inserted contact, including its ID
+     */
+    void contactAdded(Contact contact);
+
+    /**
+     * Called after a contact has been updated.
+     *
+     * @param before The contact as it was before the update
+     * @param after  The contact as it is after the update
+     */
+    void contactUpdated(Contact before, Contact after);
+
+    /**
+     * Called after a contact has been deleted.
+     *
+     * @param contact The contact as it was before deletion
+     */
+    void contactRemoved(Contact contact);
+
+    /**
+     * Called once after a batch of contacts has been inserted.
+     * Listeners that can handle a batch more cheaply than one contact at a
+     * time override this.
+     *
+     * @param contacts The inserted contacts, including their IDs
+     */
+    default void contactsAdded(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            contactAdded(contact);
+        }
+    }
+
+    /**
+     * Called once after a batch of contacts has been deleted.
+     *
+     * @param contacts The contacts as they were before deletion
+     */
+    default void contactsRemoved(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            contactRemoved(contact);
+        }
+    }
+}
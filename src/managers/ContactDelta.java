@@ -0,0 +1,283 @@
+package managers;
+
+import java.sql.Date;
+import java.util.Objects;
+import models.Contact;
+
+/**
+ * ContactDelta class describing a field-level change to a contact: a
+ * bitmask of the changed fields and one value per changed field. Undo
+ * entries for contact updates keep a delta holding the old values instead
+ * of a full copy of the contact, and undoing them writes only the changed
+ * columns (see {@link ContactManager#updateContactFields(ContactDelta)}).
+ *
+ * Instances are immutable.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactDelta {
+
+    /** Bit of the first_name field */
+    public static final int FIRST_NAME = 1;
+    /** Bit of the middle_name field */
+    public static final int MIDDLE_NAME = 1 << 1;
+    /** Bit of the last_name field */
+    public static final int LAST_NAME = 1 << 2;
+    /** Bit of the nickname field */
+    public static final int NICKNAME = 1 << 3;
+    /** Bit of the phone_primary field */
+    public static final int PHONE_PRIMARY = 1 << 4;
+    /** Bit of the phone_secondary field */
+    public static final int PHONE_SECONDARY = 1 << 5;
+    /** Bit of the email field */
+    public static final int EMAIL = 1 << 6;
+    /** Bit of the linkedin_url field */
+    public static final int LINKEDIN_URL = 1 << 7;
+    /** Bit of the birth_date field */
+    public static final int BIRTH_DATE = 1 << 8;
+
+    /** Number of fields a delta can cover */
+    public static final int FIELD_COUNT = 9;
+
+    /** Column names, indexed by bit position */
+    private static final String[] COLUMNS = {
+        "first_name",
+        "middle_name",
+        "last_name",
+        "nickname",
+        "phone_primary",
+        "phone_secondary",
+        "email",
+        "linkedin_url",
+        "birth_date",
+    };
+
+    private final int contactId;
+    private final int changedFields;
+    private final Object[] values; // One per set bit, lowest bit first
+
+    /**
+     * Constructor for ContactDelta.
+     *
+     * @param contactId     The ID of the contact
+     * @param changedFields Bitmask of the fields in the delta
+     * @param values        One value per set bit, lowest bit first; Strings,
+     *                      and a Date for BIRTH_DATE
+     * @throws IllegalArgumentException If the number of values does not
+     *                                  match the bitmask
+     */
+    public ContactDelta(int contactId, int changedFields, Object[] values) {
+        if (Integer.bitCount(changedFields) != values.length) {
+            throw new IllegalArgumentException(
+                "Expected " +
+                Integer.bitCount(changedFields) +
+                " values, got " +
+                values.length
+            );
+        }
+        this.contactId = contactId;
+        this.changedFields = changedFields;
+        this.values = values.clone();
+    }
+
+    /**
+     * Builds the delta that turns a contact back into its earlier state.
+     *
+     * @param before The contact before the change
+     * @param after  The contact after the change
+     * @return Delta of the fields that differ, holding their values in before
+     */
+    public static ContactDelta revert(Contact before, Contact after) {
+        int changed = 0;
+        Object[] old = new Object[FIELD_COUNT];
+        int count = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            Object value = get(before, i);
+            if (!Objects.equals(value, get(after, i))) {
+                changed |= 1 << i;
+                old[count++] = value;
+            }
+        }
+        Object[] values = new Object[count];
+        System.arraycopy(old, 0, values, 0, count);
+        return new ContactDelta(before.getContactId(), changed, values);
+    }
+
+    /**
+     * Gets the ID of the contact.
+     *
+     * @return The contact ID
+     */
+    public int getContactId() {
+        return contactId;
+    }
+
+    /**
+     * Gets the fields covered by the delta.
+     *
+     * @return Bitmask of FIRST_NAME, MIDDLE_NAME, ... BIRTH_DATE
+     */
+    public int getChangedFields() {
+        return changedFields;
+    }
+
+    /**
+     * Checks whether the delta changes nothing.
+     *
+     * @return true if no field is covered
+     */
+    public boolean isEmpty() {
+        return changedFields == 0;
+    }
+
+    /**
+     * Checks whether the delta covers a field.
+     *
+     * @param field One of the field bits
+     * @return true if the field is covered
+     */
+    public boolean contains(int field) {
+        return (changedFields & field) != 0;
+    }
+
+    /**
+     * Gets the value of a field.
+     *
+     * @param field One of the field bits
+     * @return The value (String, or Date for BIRTH_DATE), or null if the
+     *         field is not covered or is empty
+     */
+    public Object getValue(int field) {
+        if (!contains(field)) {
+            return null;
+        }
+        return values[Integer.bitCount(changedFields & (field - 1))];
+    }
+
+    /**
+     * Gets the column name of a field.
+     *
+     * @param field One of the field bits
+     * @return The column name in the contacts table
+     */
+    public static String columnName(int field) {
+        return COLUMNS[Integer.numberOfTrailingZeros(field)];
+    }
+
+    /**
+     * Applies the delta to a copy of a contact.
+     *
+     * @param contact The contact
+     * @return A new contact with the delta's values in the covered fields
+     */
+    public Contact applyTo(Contact contact) {
+        Contact result = new Contact(
+            contact.getContactId(),
+            contact.getFirstName(),
+            contact.getMiddleName(),
+            contact.getLastName(),
+            contact.getNickname(),
+            contact.getPhonePrimary(),
+            contact.getPhoneSecondary(),
+            contact.getEmail(),
+            contact.getLinkedinUrl(),
+            contact.getBirthDate(),
+            contact.getCreatedAt(),
+            contact.getUpdatedAt()
+        );
+        int index = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (contains(1 << i)) {
+                set(result, i, values[index++]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the delta that reverts applying this one: the same fields with
+     * the values they have in the given contact.
+     *
+     * @param current The contact before this delta is applied
+     * @return The inverse delta
+     */
+    public ContactDelta inverse(Contact current) {
+        Object[] currentValues = new Object[values.length];
+        int index = 0;
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (contains(1 << i)) {
+                currentValues[index++] = get(current, i);
+            }
+        }
+        return new ContactDelta(contactId, changedFields, currentValues);
+    }
+
+    /**
+     * Reads a field of a contact.
+     *
+     * @param contact The contact
+     * @param i       The bit position of the field
+     * @return The value
+     */
+    private static Object get(Contact contact, int i) {
+        switch (i) {
+            case 0:
+                return contact.getFirstName();
+            case 1:
+                return contact.getMiddleName();
+            case 2:
+                return contact.getLastName();
+            case 3:
+                return contact.getNickname();
+            case 4:
+                return contact.getPhonePrimary();
+            case 5:
+                return contact.getPhoneSecondary();
+            case 6:
+                return contact.getEmail();
+            case 7:
+                return contact.getLinkedinUrl();
+            default:
+                return contact.getBirthDate();
+        }
+    }
+
+    /**
+     * Writes a field of a contact.
+     *
+     * @param contact The contact
+     * @param i       The bit position of the field
+     * @param value   The value
+     */
+    private static void set(Contact contact, int i, Object value) {
+        switch (i) {
+            case 0:
+                contact.setFirstName((String) value);
+                break;
+            case 1:
+                contact.setMiddleName((String) value);
+                break;
+            case 2:
+                contact.setLastName((String) value);
+                break;
+            case 3:
+                contact.setNickname((String) value);
+                break;
+            case 4:
+                contact.setPhonePrimary((String) value);
+                break;
+            case 5:
+                contact.setPhoneSecondary((String) value);
+                break;
+            case 6:
+                contact.setEmail((String) value);
+                break;
+            case 7:
+                contact.setLinkedinUrl((String) value);
+                break;
+            default:
+                contact.setBirthDate((Date) value);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package managers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+import models.Contact;
+
+/**
+ * ContactExporter class writing the whole contacts table to a file.
+ * Rows are streamed from a database cursor through
+ * {@link ContactManager#streamAllContacts(java.util.function.Consumer)}
+ * straight into a large buffered writer on top of a {@link FileChannel},
+ * optionally gzip-compressed, so the table is never held in memory.
+ * The export is written to a temporary file next to the target and moved
+ * into place only once it is complete.
+ *
+ * CSV exports use the same column names as {@link ContactImporter}, so an
+ * exported file can be imported again.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactExporter {
+
+    /** Size of the character buffer in front of the file channel */
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    /** Size of the gzip deflater's output buffer */
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] COLUMNS = {
+        "contact_id",
+        "first_name",
+        "middle_name",
+        "last_name",
+        "nickname",
+        "phone_primary",
+        "phone_secondary",
+        "email",
+        "linkedin_url",
+        "birth_date",
+        "created_at",
+        "updated_at",
+    };
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format {
+        /** Comma-separated values with a header row */
+        CSV,
+        /** One JSON object per line */
+        JSONL,
+    }
+
+    private final ContactManager contactManager;
+
+    /**
+     * Constructor for ContactExporter.
+     *
+     * @param contactManager The ContactManager used to read contacts
+     */
+    public ContactExporter(ContactManager contactManager) {
+        this.contactManager = contactManager;
+    }
+
+    /**
+     * Exports every contact to a file.
+     *
+     * @param file   The target file; replaced if it already exists
+     * @param format The output format
+     * @param gzip   true to gzip-compress the output
+     * @return The number of contacts exported
+     * @throws IOException If writing fails or the contacts cannot be read
+     */
+    public int exportAll(Path file, Format format, boolean gzip) throws IOException {
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(
+            target.getParent(),
+            target.getFileName().toString(),
+            ".tmp"
+        );
+
+        boolean completed = false;
+        try {
+            int count;
+            try (Writer writer = openWriter(temp, gzip)) {
+                count = writeContacts(writer, format);
+            }
+            Files.move(
+                temp,
+                target,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            completed = true;
+            return count;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer on a file channel, optionally gzipped.
+     *
+     * @param file The file to write
+     * @param gzip true to gzip-compress the output
+     * @return The writer
+     * @throws IOException If the file cannot be opened
+     */
+    private static Writer openWriter(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(
+            file,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING
+        );
+        OutputStream out = Channels.newOutputStream(channel);
+        if (gzip) {
+            out = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        }
+        return new BufferedWriter(
+            new OutputStreamWriter(out, StandardCharsets.UTF_8),
+            WRITE_BUFFER_SIZE
+        );
+    }
+
+    /**
+     * Streams all contacts into the writer.
+     *
+     * @param writer The destination
+     * @param format The output format
+     * @return The number of contacts written
+     * @throws IOException If writing fails or the contacts cannot be read
+     */
+    private int writeContacts(Writer writer, Format format) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        int count;
+        try {
+            count = contactManager.streamAllContacts(contact -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, contact);
+                    } else {
+                        writeJsonLine(writer, contact);
+                    }
+                } catch (IOException e) {
+                    // Unwrapped below; Consumer cannot throw checked exceptions
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (count < 0) {
+            throw new IOException("Failed to read contacts from the database");
+        }
+        return count;
+    }
+
+    /**
+     * Writes one contact as a CSV row.
+     *
+     * @param writer  The destination
+     * @param contact The contact
+     * @throws IOException If writing fails
+     */
+    private static void writeCsvRow(Writer writer, Contact contact) throws IOException {
+        String[] values = values(contact);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, values[i]);
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes one CSV field, quoting it when it contains special characters.
+     *
+     * @param writer The destination
+     * @param value  The value, or null for an empty field
+     * @throws IOException If writing fails
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Writes one contact as a JSON object on its own line.
+     *
+     * @param writer  The destination
+     * @param contact The contact
+     * @throws IOException If writing fails
+     */
+    private static void writeJsonLine(Writer writer, Contact contact) throws IOException {
+        String[] values = values(contact);
+        writer.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(COLUMNS[i]);
+            writer.write("\":");
+            if (i == 0) {
+                writer.write(values[i]); // contact_id is numeric
+            } else {
+                writeJsonString(writer, values[i]);
+            }
+        }
+        writer.write("}\n");
+    }
+
+    /**
+     * Writes a JSON string literal, or null.
+     *
+     * @param writer The destination
+     * @param value  The value
+     * @throws IOException If writing fails
+     */
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Gets a contact's values in {@link #COLUMNS} order.
+     *
+     * @param contact The contact
+     * @return The values as strings, null where the column is NULL
+     */
+    private static String[] values(Contact contact) {
+        return new String[] {
+            String.valueOf(contact.getContactId()),
+            contact.getFirstName(),
+            contact.getMiddleName(),
+            contact.getLastName(),
+            contact.getNickname(),
+            contact.getPhonePrimary(),
+            contact.getPhoneSecondary(),
+            contact.getEmail(),
+            contact.getLinkedinUrl(),
+            contact.getBirthDate() != null ? contact.getBirthDate().toString() : null,
+            formatTimestamp(contact.getCreatedAt()),
+            formatTimestamp(contact.getUpdatedAt()),
+        };
+    }
+
+    /**
+     * Formats a timestamp without fractional seconds.
+     *
+     * @param timestamp The timestamp
+     * @return The formatted timestamp, or null
+     */
+    private static String formatTimestamp(Timestamp timestamp) {
+        return timestamp != null
+            ? timestamp.toLocalDateTime().format(TIMESTAMP_FORMAT)
+            : null;
+    }
+}
@@ -0,0 +1,586 @@
+package managers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import models.Contact;
+import utils.ValidationUtils;
+
+/**
+ * ContactImporter class loading contacts from CSV or TSV files in bulk.
+ * The import runs as a three-stage pipeline connected by bounded queues:
+ * one thread parses the file, a pool of threads validates rows with
+ * {@link ValidationUtils}, and the calling thread writes fixed-size batches
+ * through {@link ContactManager#addContacts(List)}. When a later stage falls
+ * behind, the bounded queues block the earlier ones, so memory use stays
+ * constant no matter how large the file is.
+ *
+ * The first line must be a header naming the columns (same names as the
+ * contacts table). first_name, last_name, phone_primary, email and
+ * birth_date are required; middle_name, nickname, phone_secondary and
+ * linkedin_url are optional. Files whose header contains a tab are read as
+ * TSV, everything else as CSV with RFC 4180 quoting.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactImporter {
+
+    /** Number of contacts written per addContacts call */
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    /** Capacity of the parsed-row queue between parser and validators */
+    private static final int PARSED_QUEUE_CAPACITY = 10_000;
+
+    /** Capacity of the valid-contact queue between validators and writer */
+    private static final int VALID_QUEUE_CAPACITY = 4 * WRITE_BATCH_SIZE;
+
+    /** How many row errors are kept for the summary */
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private static final String[] REQUIRED_COLUMNS = {
+        "first_name",
+        "last_name",
+        "phone_primary",
+        "email",
+        "birth_date",
+    };
+
+    private static final String[] OPTIONAL_COLUMNS = {
+        "middle_name",
+        "nickname",
+        "phone_secondary",
+        "linkedin_url",
+    };
+
+    /** Marks the end of the stream in both queues */
+    private static final ParsedRow END_OF_ROWS = new ParsedRow(-1, null);
+    private static final Contact END_OF_CONTACTS = new Contact();
+
+    private final ContactManager contactManager;
+    private final int validatorThreads;
+
+    /**
+     * A raw record from the file together with its row number (header excluded).
+     */
+    private static class ParsedRow {
+
+        private final long rowNumber;
+        private final List<String> fields;
+
+        ParsedRow(long rowNumber, List<String> fields) {
+            this.rowNumber = rowNumber;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Inner class summarizing the outcome of an import.
+     */
+    public static class ImportSummary {
+
+        private final AtomicInteger rowsRead = new AtomicInteger();
+        private final AtomicInteger rowsImported = new AtomicInteger();
+        private final AtomicInteger rowsInvalid = new AtomicInteger();
+        private final AtomicInteger rowsSkipped = new AtomicInteger();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * Gets the number of data rows read from the file.
+         *
+         * @return The number of rows read
+         */
+        public int getRowsRead() {
+            return rowsRead.get();
+        }
+
+        /**
+         * Gets the number of contacts inserted.
+         *
+         * @return The number of imported rows
+         */
+        public int getRowsImported() {
+            return rowsImported.get();
+        }
+
+        /**
+         * Gets the number of rows rejected by validation.
+         *
+         * @return The number of invalid rows
+         */
+        public int getRowsInvalid() {
+            return rowsInvalid.get();
+        }
+
+        /**
+         * Gets the number of valid rows that were not inserted, usually
+         * because their email already exists.
+         *
+         * @return The number of skipped rows
+         */
+        public int getRowsSkipped() {
+            return rowsSkipped.get();
+        }
+
+        /**
+         * Gets the first few error messages.
+         *
+         * @return List of error messages
+         */
+        public List<String> getErrors() {
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+
+        private void addError(String message) {
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(message);
+                }
+            }
+        }
+
+        private void addAbortError(String message) {
+            // Always kept, even when the row errors filled the list
+            errors.add(message);
+        }
+
+        @Override
+        public String toString() {
+            return "Rows read: " + getRowsRead() +
+                ", imported: " + getRowsImported() +
+                ", invalid: " + getRowsInvalid() +
+                ", skipped (duplicate email or insert failure): " + getRowsSkipped();
+        }
+    }
+
+    /**
+     * Constructor for ContactImporter.
+     *
+     * @param contactManager The ContactManager used to write contacts
+     */
+    public ContactImporter(ContactManager contactManager) {
+        this.contactManager = contactManager;
+        this.validatorThreads = Math.max(
+            1,
+            Runtime.getRuntime().availableProcessors() - 1
+        );
+    }
+
+    /**
+     * Imports all contacts from a CSV or TSV file.
+     *
+     * @param file The file to import (UTF-8)
+     * @return Summary of the import
+     * @throws IOException If the file cannot be opened or its header is invalid
+     */
+    public ImportSummary importFile(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            return importFrom(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Runs the import pipeline over an open reader.
+     *
+     * @param reader The reader positioned at the header line
+     * @return Summary of the import
+     * @throws IOException If the header cannot be read or is invalid
+     */
+    private ImportSummary importFrom(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IOException("File is empty");
+        }
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        char delimiter = headerLine.indexOf('\t') >= 0 ? '\t' : ',';
+        Map<String, Integer> columns = parseHeader(headerLine, delimiter);
+
+        ImportSummary summary = new ImportSummary();
+        BlockingQueue<ParsedRow> parsedRows = new ArrayBlockingQueue<>(PARSED_QUEUE_CAPACITY);
+        BlockingQueue<Contact> validContacts = new ArrayBlockingQueue<>(VALID_QUEUE_CAPACITY);
+
+        Thread parser = new Thread(
+            () -> parseRows(reader, delimiter, parsedRows, summary),
+            "contact-import-parser"
+        );
+        List<Thread> validators = new ArrayList<>();
+        for (int i = 0; i < validatorThreads; i++) {
+            validators.add(new Thread(
+                () -> validateRows(columns, parsedRows, validContacts, summary),
+                "contact-import-validator-" + i
+            ));
+        }
+
+        parser.start();
+        for (Thread validator : validators) {
+            validator.start();
+        }
+
+        boolean finished = false;
+        try {
+            finished = writeBatches(validContacts, summary);
+        } catch (RuntimeException e) {
+            summary.addAbortError("Import aborted: " + e.getMessage());
+        } finally {
+            if (!finished) {
+                // The earlier stages would block forever on the full queues
+                parser.interrupt();
+                for (Thread validator : validators) {
+                    validator.interrupt();
+                }
+            }
+        }
+
+        boolean interrupted = Thread.interrupted();
+        try {
+            parser.join();
+            for (Thread validator : validators) {
+                validator.join();
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return summary;
+    }
+
+    /**
+     * Parser stage: reads records from the file and queues them.
+     *
+     * @param reader     The reader positioned after the header
+     * @param delimiter  The field delimiter
+     * @param parsedRows The queue feeding the validators
+     * @param summary    The summary to update
+     */
+    private void parseRows(
+        BufferedReader reader,
+        char delimiter,
+        BlockingQueue<ParsedRow> parsedRows,
+        ImportSummary summary
+    ) {
+        try {
+            long rowNumber = 0;
+            List<String> fields;
+            while ((fields = readRecord(reader, delimiter)) != null) {
+                rowNumber++;
+                if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                    continue; // Blank line
+                }
+                summary.rowsRead.incrementAndGet();
+                parsedRows.put(new ParsedRow(rowNumber, fields));
+            }
+        } catch (IOException e) {
+            summary.addError("Read error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                for (int i = 0; i < validatorThreads; i++) {
+                    parsedRows.put(END_OF_ROWS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Validator stage: turns parsed rows into contacts and drops invalid ones.
+     *
+     * @param columns       Map from column name to field index
+     * @param parsedRows    The queue filled by the parser
+     * @param validContacts The queue feeding the writer
+     * @param summary       The summary to update
+     */
+    private void validateRows(
+        Map<String, Integer> columns,
+        BlockingQueue<ParsedRow> parsedRows,
+        BlockingQueue<Contact> validContacts,
+        ImportSummary summary
+    ) {
+        try {
+            ParsedRow row;
+            while ((row = parsedRows.take()) != END_OF_ROWS) {
+                Contact contact;
+                try {
+                    contact = toContact(row.fields, columns);
+                } catch (IllegalArgumentException e) {
+                    summary.rowsInvalid.incrementAndGet();
+                    summary.addError("Row " + row.rowNumber + ": " + e.getMessage());
+                    continue;
+                }
+                validContacts.put(contact);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                validContacts.put(END_OF_CONTACTS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writer stage: collects valid contacts into batches and inserts them.
+     * Runs on the calling thread until every validator has finished.
+     *
+     * @param validContacts The queue filled by the validators
+     * @param summary       The summary to update
+     * @return true if every validator finished, false if the writer was
+     *         interrupted first
+     */
+    private boolean writeBatches(BlockingQueue<Contact> validContacts, ImportSummary summary) {
+        List<Contact> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        int finishedValidators = 0;
+
+        try {
+            while (finishedValidators < validatorThreads) {
+                Contact contact = validContacts.take();
+                if (contact == END_OF_CONTACTS) {
+                    finishedValidators++;
+                } else {
+                    batch.add(contact);
+                }
+
+                if (batch.size() >= WRITE_BATCH_SIZE) {
+                    writeBatch(batch, summary);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            summary.addAbortError("Import interrupted");
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(batch, summary);
+        }
+        return finishedValidators == validatorThreads;
+    }
+
+    /**
+     * Inserts one batch and clears it.
+     *
+     * @param batch   The contacts to insert
+     * @param summary The summary to update
+     */
+    private void writeBatch(List<Contact> batch, ImportSummary summary) {
+        List<Integer> ids = contactManager.addContacts(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            if (ids.get(i) > 0) {
+                summary.rowsImported.incrementAndGet();
+            } else {
+                summary.rowsSkipped.incrementAndGet();
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Builds and validates a contact from one record.
+     *
+     * @param fields  The record's fields
+     * @param columns Map from column name to field index
+     * @return The contact
+     * @throws IllegalArgumentException If a field is missing or invalid
+     */
+    private static Contact toContact(List<String> fields, Map<String, Integer> columns) {
+        Contact contact = new Contact();
+
+        String firstName = field(fields, columns, "first_name");
+        if (!ValidationUtils.isValidName(firstName)) {
+            throw new IllegalArgumentException("Invalid first name '" + firstName + "'");
+        }
+        contact.setFirstName(firstName);
+
+        String middleName = field(fields, columns, "middle_name");
+        if (middleName != null && !ValidationUtils.isValidName(middleName)) {
+            throw new IllegalArgumentException("Invalid middle name '" + middleName + "'");
+        }
+        contact.setMiddleName(middleName);
+
+        String lastName = field(fields, columns, "last_name");
+        if (!ValidationUtils.isValidName(lastName)) {
+            throw new IllegalArgumentException("Invalid last name '" + lastName + "'");
+        }
+        contact.setLastName(lastName);
+
+        contact.setNickname(field(fields, columns, "nickname"));
+
+        String phonePrimary = field(fields, columns, "phone_primary");
+        if (!ValidationUtils.isValidPhone(phonePrimary)) {
+            throw new IllegalArgumentException("Invalid primary phone '" + phonePrimary + "'");
+        }
+        contact.setPhonePrimary(ValidationUtils.cleanPhone(phonePrimary));
+
+        String phoneSecondary = field(fields, columns, "phone_secondary");
+        if (phoneSecondary != null) {
+            if (!ValidationUtils.isValidPhone(phoneSecondary)) {
+                throw new IllegalArgumentException(
+                    "Invalid secondary phone '" + phoneSecondary + "'"
+                );
+            }
+            contact.setPhoneSecondary(ValidationUtils.cleanPhone(phoneSecondary));
+        }
+
+        String email = field(fields, columns, "email");
+        email = email == null ? null : email.toLowerCase(Locale.ROOT);
+        if (!ValidationUtils.isValidEmail(email)) {
+            throw new IllegalArgumentException("Invalid email '" + email + "'");
+        }
+        contact.setEmail(email);
+
+        String linkedinUrl = field(fields, columns, "linkedin_url");
+        if (!ValidationUtils.isValidLinkedInUrl(linkedinUrl)) {
+            throw new IllegalArgumentException("Invalid LinkedIn URL '" + linkedinUrl + "'");
+        }
+        contact.setLinkedinUrl(linkedinUrl);
+
+        String birthDate = field(fields, columns, "birth_date");
+        if (!ValidationUtils.isValidBirthDate(birthDate)) {
+            throw new IllegalArgumentException("Invalid birth date '" + birthDate + "'");
+        }
+        contact.setBirthDate(Date.valueOf(birthDate));
+
+        return contact;
+    }
+
+    /**
+     * Gets a trimmed field value by column name.
+     *
+     * @param fields  The record's fields
+     * @param columns Map from column name to field index
+     * @param column  The column name
+     * @return The value, or null if the column is absent or the value is empty
+     */
+    private static String field(
+        List<String> fields,
+        Map<String, Integer> columns,
+        String column
+    ) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Maps header column names to field indexes and checks required columns.
+     *
+     * @param headerLine The header line
+     * @param delimiter  The field delimiter
+     * @return Map from known column name to field index
+     * @throws IOException If a required column is missing
+     */
+    private static Map<String, Integer> parseHeader(String headerLine, char delimiter)
+        throws IOException {
+        List<String> names = readRecord(
+            new BufferedReader(new StringReader(headerLine)),
+            delimiter
+        );
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Missing required column: " + required);
+            }
+        }
+        columns.keySet().retainAll(knownColumns());
+        return columns;
+    }
+
+    /**
+     * Gets every column name the importer understands.
+     *
+     * @return List of required and optional column names
+     */
+    private static List<String> knownColumns() {
+        List<String> known = new ArrayList<>();
+        Collections.addAll(known, REQUIRED_COLUMNS);
+        Collections.addAll(known, OPTIONAL_COLUMNS);
+        return known;
+    }
+
+    /**
+     * Reads one record, honouring double-quoted fields that may contain the
+     * delimiter, doubled quotes and line breaks.
+     *
+     * @param reader    The reader
+     * @param delimiter The field delimiter
+     * @return The record's fields, or null at end of input
+     * @throws IOException If reading fails
+     */
+    private static List<String> readRecord(BufferedReader reader, char delimiter) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            sawAnything = true;
+            char c = (char) ch;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+
+        if (!sawAnything) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -2,11 +2,23 @@ package managers;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import models.Contact;
 import models.SearchCriteria;
+import utils.SearchKeyUtils;
 
 /**
  * ContactManager class handling all contact-related database operations.
@@ -18,7 +30,93 @@ import models.SearchCriteria;
  */
 public class ContactManager {
 
+    /**
+     * Fetch size that makes MySQL Connector/J stream rows one at a time from a
+     * forward-only, read-only result set instead of buffering the whole result.
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * How long the in-memory statistics are trusted before they are rebuilt
+     * from the database, picking up writes made by other clients.
+     */
+    private static final long STATISTICS_RECONCILE_INTERVAL_MS = 10 * 60 * 1000;
+
+    /**
+     * How long the in-memory search indexes are trusted before they are rebuilt
+     * from the database, picking up writes made by other clients.
+     */
+    private static final long SEARCH_INDEX_RECONCILE_INTERVAL_MS = 10 * 60 * 1000;
+
+    /** Maximum number of IDs bound into a single "contact_id IN (...)" list */
+    private static final int ID_CHUNK_SIZE = 500;
+
+    /**
+     * Most trigram index candidates fetched by ID. Larger candidate sets take
+     * more IN queries than a single LIKE scan is worth.
+     */
+    private static final int MAX_INDEXED_CANDIDATES = 4 * ID_CHUNK_SIZE;
+
+    /**
+     * Largest share of the table that trigram index candidates may cover
+     * before the search falls back to a LIKE scan.
+     */
+    private static final double MAX_INDEXED_CANDIDATE_SHARE = 0.05;
+
+    /** Maximum number of contacts kept in the contact cache */
+    private static final int CACHE_CAPACITY = 10_000;
+
+    /**
+     * How long a cached contact is served before it is read again, bounding
+     * how long writes made by other clients stay invisible.
+     */
+    private static final long CACHE_TIME_TO_LIVE_MS = 30 * 1000;
+
+    /** Maximum number of distinct searches whose results are remembered */
+    private static final int SEARCH_CACHE_CAPACITY = 100;
+
+    /** Number of rows sent per executeBatch() call during bulk inserts */
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    /** Columns holding the stored sort and search keys, see bindKeys */
+    private static final String[] KEY_COLUMNS = keyColumns();
+
+    /** Number of parameters of INSERT_CONTACT_SQL */
+    private static final int INSERT_PARAMETER_COUNT = 9 + KEY_COLUMNS.length;
+
+    private static final String INSERT_CONTACT_SQL =
+        "INSERT INTO contacts (first_name, middle_name, last_name, nickname, " +
+        "phone_primary, phone_secondary, email, linkedin_url, birth_date, " +
+        String.join(", ", KEY_COLUMNS) +
+        ") VALUES (" +
+        placeholders(INSERT_PARAMETER_COUNT) +
+        ")";
+
+    /** INSERT_CONTACT_SQL with the contact ID as the last parameter */
+    private static final String INSERT_CONTACT_WITH_ID_SQL =
+        "INSERT INTO contacts (first_name, middle_name, last_name, nickname, " +
+        "phone_primary, phone_secondary, email, linkedin_url, birth_date, " +
+        String.join(", ", KEY_COLUMNS) +
+        ", contact_id) VALUES (" +
+        placeholders(INSERT_PARAMETER_COUNT + 1) +
+        ")";
+
     private DatabaseManager dbManager;
+    private final List<ContactChangeListener> changeListeners =
+        new CopyOnWriteArrayList<>();
+    private ContactStatistics statistics;
+    private volatile TrigramIndex trigramIndex;
+    private final AtomicBoolean trigramIndexBuilding = new AtomicBoolean();
+    private volatile PrefixIndex prefixIndex;
+    private final AtomicBoolean prefixIndexBuilding = new AtomicBoolean();
+    private final ContactCache cache = new ContactCache(
+        CACHE_CAPACITY,
+        CACHE_TIME_TO_LIVE_MS
+    );
+    private final SearchResultCache searchCache = new SearchResultCache(
+        SEARCH_CACHE_CAPACITY,
+        CACHE_TIME_TO_LIVE_MS
+    );
 
     /**
      * Constructor for ContactManager.
@@ -27,6 +125,155 @@ public class ContactManager {
      */
     public ContactManager(DatabaseManager dbManager) {
         this.dbManager = dbManager;
+        // Every write made through this manager updates the caches
+        addChangeListener(cache);
+        addChangeListener(searchCache);
+    }
+
+    /**
+     * Gets the hit/miss metrics of the contact cache.
+     *
+     * @return Map with size, capacity, complete, hits, misses, hitRatio and evictions
+     */
+    public Map<String, Object> getCacheMetrics() {
+        return cache.getMetrics();
+    }
+
+    /**
+     * Gets the hit/miss metrics of the search result cache.
+     *
+     * @return Map with size, capacity, hits, misses, hitRatio and invalidations
+     */
+    public Map<String, Object> getSearchCacheMetrics() {
+        return searchCache.getMetrics();
+    }
+
+    /**
+     * Registers a listener that is notified after every contact write.
+     *
+     * @param listener The listener to register
+     */
+    public void addChangeListener(ContactChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered change listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeChangeListener(ContactChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * A write of a single contact row.
+     */
+    private interface RowWrite {
+        /**
+         * Runs the write.
+         *
+         * @param conn The connection to use
+         * @return The number of rows affected
+         * @throws SQLException If the write fails
+         */
+        int run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs a write of one contact and returns the contact's state before it,
+     * which the change listeners need. The row is read with SELECT ... FOR
+     * UPDATE in the same transaction as the write, so the listeners see
+     * exactly the state the write replaced, never a cached copy.
+     *
+     * @param contactId The contact ID
+     * @param write     The write
+     * @return The state before the write, or null if no row was written
+     * @throws SQLException If a statement fails
+     */
+    private Contact writeContactRow(int contactId, RowWrite write)
+        throws SQLException {
+        Contact[] locked = new Contact[1];
+        boolean written = inTransaction(conn -> {
+            try (
+                PreparedStatement select = conn.prepareStatement(
+                    "SELECT * FROM contacts WHERE contact_id = ? FOR UPDATE"
+                )
+            ) {
+                select.setInt(1, contactId);
+                ResultSet rs = select.executeQuery();
+                if (!rs.next()) {
+                    return false;
+                }
+                locked[0] = extractContactFromResultSet(rs);
+            }
+            return write.run(conn) > 0;
+        });
+        return written ? locked[0] : null;
+    }
+
+    /**
+     * Notifies listeners that a contact was inserted.
+     *
+     * @param contact The inserted contact
+     */
+    private void fireContactAdded(Contact contact) {
+        for (ContactChangeListener listener : changeListeners) {
+            listener.contactAdded(contact);
+        }
+    }
+
+    /**
+     * Notifies listeners, once per listener, that a batch of contacts was
+     * inserted.
+     *
+     * @param contacts The inserted contacts
+     */
+    private void fireContactsAdded(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        for (ContactChangeListener listener : changeListeners) {
+            listener.contactsAdded(contacts);
+        }
+    }
+
+    /**
+     * Notifies listeners that a contact was updated.
+     *
+     * @param before The contact before the update
+     * @param after  The contact after the update
+     */
+    private void fireContactUpdated(Contact before, Contact after) {
+        for (ContactChangeListener listener : changeListeners) {
+            listener.contactUpdated(before, after);
+        }
+    }
+
+    /**
+     * Notifies listeners that a contact was deleted.
+     *
+     * @param contact The deleted contact
+     */
+    private void fireContactRemoved(Contact contact) {
+        for (ContactChangeListener listener : changeListeners) {
+            listener.contactRemoved(contact);
+        }
+    }
+
+    /**
+     * Notifies listeners, once per listener, that a batch of contacts was
+     * deleted.
+     *
+     * @param contacts The deleted contacts
+     */
+    private void fireContactsRemoved(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        for (ContactChangeListener listener : changeListeners) {
+            listener.contactsRemoved(contacts);
+        }
     }
 
     /**
@@ -60,6 +307,11 @@ public class ContactManager {
      * @return List of all contacts
      */
     public List<Contact> getAllContacts() {
+        List<Contact> cached = cache.getAll();
+        if (cached != null) {
+            return cached;
+        }
+
         List<Contact> contacts = new ArrayList<>();
         String sql = "SELECT * FROM contacts ORDER BY contact_id";
 
@@ -71,6 +323,7 @@ public class ContactManager {
             while (rs.next()) {
                 contacts.add(extractContactFromResultSet(rs));
             }
+            cache.putAll(contacts);
         } catch (SQLException e) {
             System.err.println("Error retrieving contacts: " + e.getMessage());
         }
@@ -78,6 +331,121 @@ public class ContactManager {
         return contacts;
     }
 
+    /**
+     * Retrieves one page of contacts ordered by ID using keyset pagination.
+     * Instead of an OFFSET, the query seeks past the last ID of the previous
+     * page on the primary key, so every page costs the same no matter how deep
+     * into the table it is.
+     *
+     * @param afterId The last contact ID of the previous page (0 for the first page)
+     * @param limit   The maximum number of contacts to return
+     * @return List of up to limit contacts with IDs greater than afterId
+     */
+    public List<Contact> getContactsPage(int afterId, int limit) {
+        List<Contact> contacts = new ArrayList<>();
+        String sql =
+            "SELECT * FROM contacts WHERE contact_id > ? ORDER BY contact_id LIMIT ?";
+
+        try (
+            Connection conn = dbManager.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)
+        ) {
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                contacts.add(extractContactFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving contacts page: " + e.getMessage());
+        }
+
+        return contacts;
+    }
+
+    /**
+     * Retrieves one window of contacts sorted by a field, letting the
+     * database do the sorting and paging. Only indexed columns are accepted,
+     * so the database walks the index in order and stops after the window
+     * instead of loading and sorting the whole table. First and last names
+     * are ordered by their Turkish collation keys.
+     * The page IDs are picked by a subquery that reads only the index, so
+     * skipped rows are never fetched in full.
+     *
+     * @param fieldName The field to sort by: contact_id, first_name, last_name,
+     *                  email, phone_primary or birth_date
+     * @param ascending true for ascending order, false for descending
+     * @param offset    The number of contacts to skip
+     * @param limit     The maximum number of contacts to return
+     * @return List of up to limit contacts in the requested order
+     * @throws IllegalArgumentException If the field is not sortable
+     */
+    public List<Contact> getContactsSorted(
+        String fieldName,
+        boolean ascending,
+        int offset,
+        int limit
+    ) {
+        String column = getSortColumn(fieldName);
+        if (column == null) {
+            throw new IllegalArgumentException("Cannot sort by field: " + fieldName);
+        }
+
+        // contact_id breaks ties so that pages never overlap or skip rows
+        String direction = ascending ? "ASC" : "DESC";
+        String orderBy = column.equals("contact_id")
+            ? "contact_id " + direction
+            : column + " " + direction + ", contact_id " + direction;
+        String sql =
+            "SELECT c.* FROM contacts c JOIN (" +
+            "SELECT contact_id FROM contacts ORDER BY " + orderBy + " LIMIT ?, ?" +
+            ") page USING (contact_id) ORDER BY " + orderBy;
+
+        List<Contact> contacts = new ArrayList<>();
+        try (
+            Connection conn = dbManager.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)
+        ) {
+            pstmt.setInt(1, offset);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                contacts.add(extractContactFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving sorted contacts: " + e.getMessage());
+        }
+
+        return contacts;
+    }
+
+    /**
+     * Maps a sortable field to the indexed column the database sorts on.
+     *
+     * @param fieldName The field name
+     * @return The column name, or null if the field cannot be sorted in the database
+     */
+    private static String getSortColumn(String fieldName) {
+        switch (fieldName.toLowerCase()) {
+            case "contact_id":
+                return "contact_id";
+            case "first_name":
+                return "first_name_key";
+            case "last_name":
+                return "last_name_key";
+            case "email":
+                return "email";
+            case "phone_primary":
+                return "phone_primary";
+            case "birth_date":
+                return "birth_date";
+            default:
+                return null;
+        }
+    }
+
     /**
      * Retrieves a contact by ID.
      *
@@ -85,6 +453,25 @@ public class ContactManager {
      * @return Contact object if found, null otherwise
      */
     public Contact getContactById(int contactId) {
+        Contact cached = cache.get(contactId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Contact contact = readContact(contactId);
+        if (contact != null) {
+            cache.put(contact);
+        }
+        return contact;
+    }
+
+    /**
+     * Reads a contact from the database, bypassing the contact cache.
+     *
+     * @param contactId The contact ID
+     * @return The contact, or null if not found or an error occurred
+     */
+    private Contact readContact(int contactId) {
         String sql = "SELECT * FROM contacts WHERE contact_id = ?";
 
         try (
@@ -104,6 +491,61 @@ public class ContactManager {
         return null;
     }
 
+    /**
+     * Retrieves several contacts by ID with one query per chunk of IDs.
+     * Duplicate IDs are ignored and IDs that do not exist are skipped.
+     *
+     * @param contactIds The contact IDs
+     * @return List of the contacts found, in the order their IDs were given
+     */
+    public List<Contact> getContactsByIds(List<Integer> contactIds) {
+        List<Contact> contacts = new ArrayList<>();
+        if (contactIds == null || contactIds.isEmpty()) {
+            return contacts;
+        }
+
+        List<Integer> uniqueIds = new ArrayList<>(new LinkedHashSet<>(contactIds));
+        Map<Integer, Contact> found = new HashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (int contactId : uniqueIds) {
+            Contact cached = cache.get(contactId);
+            if (cached != null) {
+                found.put(contactId, cached);
+            } else {
+                missingIds.add(contactId);
+            }
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : chunk(missingIds)) {
+                String sql =
+                    "SELECT * FROM contacts WHERE contact_id IN (" +
+                    placeholders(chunk.size()) +
+                    ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    bindIds(pstmt, chunk);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Contact contact = extractContactFromResultSet(rs);
+                        found.put(contact.getContactId(), contact);
+                        cache.put(contact);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving contacts: " + e.getMessage());
+            return contacts;
+        }
+
+        for (int contactId : uniqueIds) {
+            Contact contact = found.get(contactId);
+            if (contact != null) {
+                contacts.add(contact);
+            }
+        }
+        return contacts;
+    }
+
     /**
      * Adds a new contact to the database.
      *
@@ -111,211 +553,1159 @@ public class ContactManager {
      * @return The ID of the newly added contact, or -1 if failed
      */
     public int addContact(Contact contact) {
-        String sql =
-            "INSERT INTO contacts (first_name, middle_name, last_name, nickname, " +
-            "phone_primary, phone_secondary, email, linkedin_url, birth_date) " +
-            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         try (
             Connection conn = dbManager.getConnection();
             PreparedStatement pstmt = conn.prepareStatement(
-                sql,
+                INSERT_CONTACT_SQL,
                 Statement.RETURN_GENERATED_KEYS
             )
         ) {
-            pstmt.setString(1, contact.getFirstName());
-            pstmt.setString(2, contact.getMiddleName());
-            pstmt.setString(3, contact.getLastName());
-            pstmt.setString(4, contact.getNickname());
-            pstmt.setString(5, contact.getPhonePrimary());
-            pstmt.setString(6, contact.getPhoneSecondary());
-            pstmt.setString(7, contact.getEmail());
-            pstmt.setString(8, contact.getLinkedinUrl());
-            pstmt.setDate(9, contact.getBirthDate());
+            bindInsertParameters(pstmt, contact);
 
             int rowsAffected = pstmt.executeUpdate();
 
             if (rowsAffected > 0) {
                 ResultSet rs = pstmt.getGeneratedKeys();
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    int newId = rs.getInt(1);
+                    contact.setContactId(newId);
+                    fireContactAdded(contact);
+                    return newId;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error adding contact: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Adds many contacts in one transaction using JDBC batch execution.
+     * All emails are checked against the database with one set-based query
+     * first; contacts whose email already exists, or repeats an earlier email
+     * in the same list, are skipped. The remaining rows are sent in batches
+     * that the driver rewrites into multi-row INSERT statements.
+     * If any batch fails the whole transaction is rolled back.
+     *
+     * @param contacts The contacts to add
+     * @return The generated ID for each contact in input order, or -1 for
+     *         contacts that were skipped or not inserted
+     */
+    public List<Integer> addContacts(List<Contact> contacts) {
+        List<Integer> generatedIds = new ArrayList<>();
+        if (contacts == null || contacts.isEmpty()) {
+            return generatedIds;
+        }
+        for (int i = 0; i < contacts.size(); i++) {
+            generatedIds.add(-1);
+        }
+
+        List<Integer> acceptedPositions = new ArrayList<>();
+        try {
+            inTransaction(conn -> {
+                Set<String> takenEmails = findExistingEmails(conn, contacts);
+                for (int i = 0; i < contacts.size(); i++) {
+                    String email = contacts.get(i).getEmail();
+                    if (email != null && takenEmails.add(emailKey(email))) {
+                        acceptedPositions.add(i);
+                    }
+                }
+
+                try (
+                    PreparedStatement pstmt = conn.prepareStatement(
+                        INSERT_CONTACT_SQL,
+                        Statement.RETURN_GENERATED_KEYS
+                    )
+                ) {
+                    for (int start = 0; start < acceptedPositions.size(); start += INSERT_BATCH_SIZE) {
+                        List<Integer> batch = acceptedPositions.subList(
+                            start,
+                            Math.min(start + INSERT_BATCH_SIZE, acceptedPositions.size())
+                        );
+                        for (int position : batch) {
+                            bindInsertParameters(pstmt, contacts.get(position));
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+
+                        // Keys come back in the order the rows were added
+                        ResultSet keys = pstmt.getGeneratedKeys();
+                        for (int position : batch) {
+                            if (!keys.next()) {
+                                throw new SQLException("Missing generated key for batch insert");
+                            }
+                            generatedIds.set(position, keys.getInt(1));
+                        }
+                    }
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error adding contacts: " + e.getMessage());
+            for (int i = 0; i < generatedIds.size(); i++) {
+                generatedIds.set(i, -1);
+            }
+            return generatedIds;
+        }
+
+        List<Contact> added = new ArrayList<>();
+        for (int position : acceptedPositions) {
+            Contact contact = contacts.get(position);
+            contact.setContactId(generatedIds.get(position));
+            added.add(contact);
+        }
+        fireContactsAdded(added);
+        return generatedIds;
+    }
+
+    /**
+     * Finds which of the given contacts' emails already exist in the database,
+     * using one IN query per chunk of emails.
+     *
+     * @param conn     The connection to use
+     * @param contacts The contacts whose emails should be checked
+     * @return Set of existing emails in {@link #emailKey(String)} form
+     * @throws SQLException If the query fails
+     */
+    private Set<String> findExistingEmails(Connection conn, List<Contact> contacts)
+        throws SQLException {
+        List<String> emails = new ArrayList<>();
+        for (Contact contact : contacts) {
+            if (contact.getEmail() != null) {
+                emails.add(contact.getEmail());
+            }
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < emails.size(); start += ID_CHUNK_SIZE) {
+            List<String> chunk = emails.subList(
+                start,
+                Math.min(start + ID_CHUNK_SIZE, emails.size())
+            );
+            String sql =
+                "SELECT email FROM contacts WHERE email IN (" +
+                placeholders(chunk.size()) +
+                ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setString(i + 1, chunk.get(i));
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    existing.add(emailKey(rs.getString(1)));
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Normalizes an email for duplicate checks, matching the case-insensitive
+     * comparison the database collation applies.
+     *
+     * @param email The email
+     * @return The lowercase email
+     */
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Binds a contact's fields to the parameters of INSERT_CONTACT_SQL.
+     *
+     * @param pstmt   The insert statement
+     * @param contact The contact to bind
+     * @throws SQLException If binding fails
+     */
+    private static void bindInsertParameters(PreparedStatement pstmt, Contact contact)
+        throws SQLException {
+        pstmt.setString(1, contact.getFirstName());
+        pstmt.setString(2, contact.getMiddleName());
+        pstmt.setString(3, contact.getLastName());
+        pstmt.setString(4, contact.getNickname());
+        pstmt.setString(5, contact.getPhonePrimary());
+        pstmt.setString(6, contact.getPhoneSecondary());
+        pstmt.setString(7, contact.getEmail());
+        pstmt.setString(8, contact.getLinkedinUrl());
+        pstmt.setDate(9, contact.getBirthDate());
+        bindKeys(pstmt, 10, contact);
+    }
+
+    /**
+     * Lists the key columns: the name sort keys followed by the search key
+     * of every text field.
+     *
+     * @return The column names
+     */
+    private static String[] keyColumns() {
+        String[] searchFields = Contact.getSearchKeyFields();
+        String[] columns = new String[2 + searchFields.length];
+        columns[0] = "first_name_key";
+        columns[1] = "last_name_key";
+        for (int i = 0; i < searchFields.length; i++) {
+            columns[2 + i] = searchFields[i] + Contact.SEARCH_KEY_SUFFIX;
+        }
+        return columns;
+    }
+
+    /**
+     * Binds a contact's keys to consecutive parameters, in the order of
+     * KEY_COLUMNS.
+     *
+     * @param pstmt   The statement
+     * @param first   The index of the first key parameter
+     * @param contact The contact whose keys to bind
+     * @throws SQLException If binding fails
+     */
+    private static void bindKeys(PreparedStatement pstmt, int first, Contact contact)
+        throws SQLException {
+        pstmt.setString(first, contact.getFirstNameKey());
+        pstmt.setString(first + 1, contact.getLastNameKey());
+        for (int i = 2; i < KEY_COLUMNS.length; i++) {
+            pstmt.setString(first + i, contact.getSearchKey(i - 2));
+        }
+    }
+
+    /**
+     * Fills in missing sort and search keys, e.g. for rows inserted by the
+     * setup script or before the key columns existed. Works through the rows
+     * in chunks so that memory use does not depend on the table size.
+     *
+     * @return The number of contacts updated, or -1 if an error occurred
+     */
+    public int backfillKeys() {
+        // first_name is mandatory, so its keys are only missing if not filled in
+        String selectSql =
+            "SELECT * FROM contacts " +
+            "WHERE first_name_key IS NULL OR last_name_key IS NULL " +
+            "OR first_name" + Contact.SEARCH_KEY_SUFFIX + " IS NULL LIMIT " +
+            INSERT_BATCH_SIZE;
+        String updateSql =
+            "UPDATE contacts SET " +
+            String.join(" = ?, ", KEY_COLUMNS) +
+            " = ? WHERE contact_id = ?";
+        int updated = 0;
+
+        try (
+            Connection conn = dbManager.getConnection();
+            PreparedStatement select = conn.prepareStatement(selectSql);
+            PreparedStatement update = conn.prepareStatement(updateSql)
+        ) {
+            while (true) {
+                int pending = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        Contact contact = extractContactFromResultSet(rs);
+                        bindKeys(update, 1, contact);
+                        update.setInt(KEY_COLUMNS.length + 1, contact.getContactId());
+                        update.addBatch();
+                        pending++;
+                    }
+                }
+                if (pending == 0) {
+                    return updated;
+                }
+                update.executeBatch();
+                updated += pending;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error backfilling sort keys: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Updates an existing contact in the database.
+     *
+     * @param contact The Contact object with updated information
+     * @return true if update successful, false otherwise
+     */
+    public boolean updateContact(Contact contact) {
+        String sql =
+            "UPDATE contacts SET first_name = ?, middle_name = ?, last_name = ?, " +
+            "nickname = ?, phone_primary = ?, phone_secondary = ?, email = ?, " +
+            "linkedin_url = ?, birth_date = ?, " +
+            String.join(" = ?, ", KEY_COLUMNS) +
+            " = ? WHERE contact_id = ?";
+
+        try {
+            Contact previous = writeContactRow(contact.getContactId(), conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    bindInsertParameters(pstmt, contact);
+                    pstmt.setInt(INSERT_PARAMETER_COUNT + 1, contact.getContactId());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (previous == null) {
+                return false;
+            }
+            fireContactUpdated(previous, contact);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating contact: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes only the fields covered by a delta, e.g. to undo an update.
+     * The sort and search keys are rewritten along with the fields they
+     * derive from.
+     *
+     * @param delta The fields to write and their values
+     * @return true if the contact was updated, false otherwise
+     */
+    public boolean updateContactFields(ContactDelta delta) {
+        if (delta.isEmpty()) {
+            return false;
+        }
+        // Only used to derive the keys of the written fields
+        Contact keys = delta.applyTo(new Contact());
+
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < ContactDelta.FIELD_COUNT; i++) {
+            int field = 1 << i;
+            if (delta.contains(field)) {
+                String column = ContactDelta.columnName(field);
+                columns.add(column);
+                values.add(delta.getValue(field));
+                int searchKey = Contact.searchKeyIndex(column);
+                if (searchKey >= 0) {
+                    columns.add(column + Contact.SEARCH_KEY_SUFFIX);
+                    values.add(keys.getSearchKey(searchKey));
+                }
+            }
+        }
+        if (delta.contains(ContactDelta.FIRST_NAME)) {
+            columns.add("first_name_key");
+            values.add(keys.getFirstNameKey());
+        }
+        if (delta.contains(ContactDelta.LAST_NAME)) {
+            columns.add("last_name_key");
+            values.add(keys.getLastNameKey());
+        }
+        String sql =
+            "UPDATE contacts SET " +
+            String.join(" = ?, ", columns) +
+            " = ? WHERE contact_id = ?";
+
+        try {
+            Contact previous = writeContactRow(delta.getContactId(), conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < values.size(); i++) {
+                        Object value = values.get(i);
+                        if (value instanceof Date) {
+                            pstmt.setDate(i + 1, (Date) value);
+                        } else {
+                            pstmt.setString(i + 1, (String) value);
+                        }
+                    }
+                    pstmt.setInt(values.size() + 1, delta.getContactId());
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (previous == null) {
+                return false;
+            }
+            fireContactUpdated(previous, delta.applyTo(previous));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error updating contact: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes a contact from the database.
+     *
+     * @param contactId The ID of the contact to delete
+     * @return true if deletion successful, false otherwise
+     */
+    public boolean deleteContact(int contactId) {
+        String sql = "DELETE FROM contacts WHERE contact_id = ?";
+
+        try {
+            Contact previous = writeContactRow(contactId, conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, contactId);
+                    return pstmt.executeUpdate();
+                }
+            });
+            if (previous == null) {
+                return false;
+            }
+            fireContactRemoved(previous);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error deleting contact: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes multiple contacts from the database in one transaction.
+     * IDs are processed in chunks: each chunk locks and reads its rows with
+     * SELECT ... FOR UPDATE (to know which IDs exist) and removes them with a
+     * single DELETE ... WHERE contact_id IN (...). If any statement fails the
+     * whole operation is rolled back and no contact is deleted.
+     *
+     * @param contactIds List of contact IDs to delete
+     * @return Map from each requested ID to whether it was deleted, in request order
+     */
+    public Map<Integer, Boolean> deleteContacts(List<Integer> contactIds) {
+        return deleteContacts(contactIds, false);
+    }
+
+    /**
+     * Deletes multiple contacts from the database in one transaction,
+     * optionally only if all of them still exist.
+     *
+     * @param contactIds List of contact IDs to delete
+     * @param requireAll true to delete nothing unless every ID exists, e.g.
+     *                   to undo a batch add exactly
+     * @return Map from each requested ID to whether it was deleted, in request order
+     */
+    public Map<Integer, Boolean> deleteContacts(
+        List<Integer> contactIds,
+        boolean requireAll
+    ) {
+        Map<Integer, Boolean> outcomes = new LinkedHashMap<>();
+        if (contactIds == null || contactIds.isEmpty()) {
+            return outcomes;
+        }
+        for (int contactId : contactIds) {
+            outcomes.put(contactId, false);
+        }
+
+        List<Contact> deleted = new ArrayList<>();
+        try {
+            boolean committed = inTransaction(conn -> {
+                for (List<Integer> chunk : chunk(new ArrayList<>(outcomes.keySet()))) {
+                    String idList = placeholders(chunk.size());
+
+                    try (
+                        PreparedStatement select = conn.prepareStatement(
+                            "SELECT * FROM contacts WHERE contact_id IN (" +
+                            idList +
+                            ") FOR UPDATE"
+                        )
+                    ) {
+                        bindIds(select, chunk);
+                        ResultSet rs = select.executeQuery();
+                        while (rs.next()) {
+                            deleted.add(extractContactFromResultSet(rs));
+                        }
+                    }
+
+                    try (
+                        PreparedStatement delete = conn.prepareStatement(
+                            "DELETE FROM contacts WHERE contact_id IN (" +
+                            idList +
+                            ")"
+                        )
+                    ) {
+                        bindIds(delete, chunk);
+                        delete.executeUpdate();
+                    }
+                }
+                return !requireAll || deleted.size() == outcomes.size();
+            });
+            if (!committed) {
+                return outcomes;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error deleting contacts: " + e.getMessage());
+            return outcomes;
+        }
+
+        for (Contact contact : deleted) {
+            outcomes.put(contact.getContactId(), true);
+        }
+        fireContactsRemoved(deleted);
+        return outcomes;
+    }
+
+    /**
+     * Statements run on one connection inside a transaction, see
+     * {@link ContactManager#inTransaction(TransactionalWork)}.
+     */
+    private interface TransactionalWork {
+        /**
+         * Runs the statements.
+         *
+         * @param conn The transaction's connection
+         * @return true to commit the work, false to roll it back
+         * @throws SQLException If a statement fails; the work is rolled back
+         */
+        boolean run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs work as one transaction started with
+     * {@link DatabaseManager#beginTransaction()}, committed or rolled back
+     * when the work ends. Change listeners are notified by the callers only
+     * after this returns, i.e. after the commit. Since beginTransaction()
+     * refuses to nest, calling this inside an open transaction fails instead
+     * of committing the outer transaction early.
+     *
+     * @param work The statements to run
+     * @return true if the work was committed, false if it was rolled back
+     * @throws SQLException If a statement, the commit or the rollback fails
+     */
+    private boolean inTransaction(TransactionalWork work) throws SQLException {
+        dbManager.beginTransaction();
+
+        boolean keep = false;
+        try {
+            try (Connection conn = dbManager.getConnection()) {
+                keep = work.run(conn);
+            }
+        } finally {
+            if (keep) {
+                dbManager.commit();
+            } else {
+                dbManager.rollback();
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * Splits a list of IDs into chunks of at most ID_CHUNK_SIZE.
+     *
+     * @param ids The IDs to split
+     * @return List of consecutive sub-lists
+     */
+    private static List<List<Integer>> chunk(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(i, Math.min(i + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Builds a comma-separated list of parameter placeholders.
+     *
+     * @param count The number of placeholders
+     * @return A string such as "?, ?, ?"
+     */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Binds IDs to consecutive parameters starting at index 1.
+     *
+     * @param pstmt The statement
+     * @param ids   The IDs to bind
+     * @throws SQLException If binding fails
+     */
+    private static void bindIds(PreparedStatement pstmt, List<Integer> ids)
+        throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            pstmt.setInt(i + 1, ids.get(i));
+        }
+    }
+
+    /**
+     * Searches contacts by a single field with exact or partial match.
+     * Text fields are compared through their stored search key columns.
+     * Partial matches of three or more characters are narrowed down through
+     * the trigram index instead of scanning the table, unless the index
+     * finds too many candidates for that to pay off.
+     *
+     * @param fieldName  The field name to search
+     * @param value      The value to search for
+     * @param exactMatch true for exact match, false for partial match
+     * @return List of matching contacts
+     */
+    public List<Contact> searchByField(
+        String fieldName,
+        String value,
+        boolean exactMatch
+    ) {
+        String column = fieldName;
+        String key = value;
+        if (Contact.searchKeyIndex(fieldName) >= 0) {
+            column = fieldName + Contact.SEARCH_KEY_SUFFIX;
+            key = SearchKeyUtils.searchKey(value);
+        }
+
+        if (!exactMatch && TrigramIndex.canSearch(fieldName, value)) {
+            TrigramIndex index = getTrigramIndex();
+            List<Integer> candidates = index != null
+                ? index.findCandidates(fieldName, value)
+                : null;
+            if (candidates != null && isSelective(candidates, index)) {
+                List<String> values = new ArrayList<>();
+                values.add("%" + key + "%");
+                try {
+                    return fetchCandidates(candidates, column + " LIKE ?", values);
+                } catch (SQLException e) {
+                    System.err.println("Error searching contacts: " + e.getMessage());
+                    return new ArrayList<>();
+                }
+            }
+        }
+
+        List<Contact> contacts = new ArrayList<>();
+        String sql;
+
+        if (exactMatch) {
+            sql = "SELECT * FROM contacts WHERE " + column + " = ?";
+        } else {
+            sql = "SELECT * FROM contacts WHERE " + column + " LIKE ?";
+        }
+
+        try (
+            Connection conn = dbManager.getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)
+        ) {
+            if (exactMatch) {
+                pstmt.setString(1, key);
+            } else {
+                pstmt.setString(1, "%" + key + "%");
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                contacts.add(extractContactFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error searching contacts: " + e.getMessage());
+        }
+
+        return contacts;
+    }
+
+    /**
+     * Searches contacts using flexible search criteria with multiple fields.
+     * AND searches containing an indexable partial match only check the
+     * candidates from the trigram index. Results are remembered by the
+     * search's canonical key, so repeating a search only resolves the
+     * matching IDs through the contact cache until a contact is written.
+     * While the contact cache holds the whole table, the search is evaluated
+     * in memory with {@link SearchCriteriaCompiler} instead of in the database.
+     *
+     * @param criteria The SearchCriteria object containing search parameters
+     * @return List of matching contacts
+     */
+    public List<Contact> searchByCriteria(SearchCriteria criteria) {
+        List<Contact> contacts = new ArrayList<>();
+
+        if (!criteria.hasCriteria()) {
+            return getAllContacts();
+        }
+
+        String cacheKey = criteria.getCanonicalKey();
+        List<Integer> cachedIds = searchCache.get(cacheKey);
+        if (cachedIds != null) {
+            return getContactsByIds(cachedIds);
+        }
+        long generation = searchCache.getGeneration();
+
+        List<Contact> inMemory = searchCachedContacts(criteria);
+        if (inMemory != null) {
+            searchCache.put(cacheKey, inMemory, generation);
+            return inMemory;
+        }
+
+        String whereClause = criteria.toSQLWhereClause();
+        List<String> values = criteria.getParameterValues();
+        List<Integer> candidates = findIndexedCandidates(criteria);
+
+        try {
+            if (candidates != null) {
+                contacts = fetchCandidates(candidates, whereClause, values);
+            } else {
+                String sql = "SELECT * FROM contacts WHERE " + whereClause;
+                try (
+                    Connection conn = dbManager.getConnection();
+                    PreparedStatement pstmt = conn.prepareStatement(sql)
+                ) {
+                    for (int i = 0; i < values.size(); i++) {
+                        pstmt.setString(i + 1, values.get(i));
+                    }
+
+                    ResultSet rs = pstmt.executeQuery();
+
+                    while (rs.next()) {
+                        contacts.add(extractContactFromResultSet(rs));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println(
+                "Error searching contacts with criteria: " + e.getMessage()
+            );
+            return new ArrayList<>(); // Failed searches are not cached
+        }
+
+        for (Contact contact : contacts) {
+            cache.put(contact);
+        }
+        searchCache.put(cacheKey, contacts, generation);
+        return contacts;
+    }
+
+    /**
+     * Evaluates a search against the contact cache.
+     *
+     * @param criteria The search criteria
+     * @return The matching contacts in contact ID order, or null if the cache
+     *         does not hold every contact or the criteria cannot be compiled
+     *         into a predicate that agrees with the SQL query
+     */
+    private List<Contact> searchCachedContacts(SearchCriteria criteria) {
+        Predicate<Contact> predicate;
+        try {
+            predicate = SearchCriteriaCompiler.compile(criteria);
+        } catch (IllegalArgumentException e) {
+            // Unknown columns and database-specific conversions go to SQL
+            return null;
+        }
+        return cache.findAll(predicate);
+    }
+
+    /**
+     * Filters a list of contacts in memory by search criteria, without
+     * querying the database.
+     *
+     * @param contacts The contacts to filter (left unchanged)
+     * @param criteria The search criteria
+     * @return The matching contacts in their original order
+     * @throws IllegalArgumentException If a criterion names an unknown field
+     *                                  or can only be evaluated by the
+     *                                  database
+     */
+    public List<Contact> filterContacts(List<Contact> contacts, SearchCriteria criteria) {
+        Predicate<Contact> predicate = SearchCriteriaCompiler.compile(criteria);
+        List<Contact> matches = new ArrayList<>();
+        for (Contact contact : contacts) {
+            if (predicate.test(contact)) {
+                matches.add(contact);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Intersects the trigram index candidates of all indexable partial
+     * criteria of an AND search.
+     *
+     * @param criteria The search criteria
+     * @return Sorted candidate IDs, or null if the index cannot help
+     */
+    private List<Integer> findIndexedCandidates(SearchCriteria criteria) {
+        if (!criteria.getLogicalOperator().equals("AND")) {
+            return null; // Every OR branch would need to be indexable
+        }
+        if (criteria.isNegated()) {
+            return null; // Candidates of a negated search are everything else
+        }
+
+        Set<Integer> candidates = null;
+        TrigramIndex index = null;
+        for (SearchCriteria.Criterion criterion : criteria.getCriteria()) {
+            if (
+                criterion.getMatchType() != SearchCriteria.MatchType.PARTIAL ||
+                !TrigramIndex.canSearch(criterion.getFieldName(), criterion.getValue())
+            ) {
+                continue;
+            }
+            if (index == null) {
+                index = getTrigramIndex();
+                if (index == null) {
+                    return null;
+                }
+            }
+
+            List<Integer> ids = index.findCandidates(
+                criterion.getFieldName(),
+                criterion.getValue()
+            );
+            if (candidates == null) {
+                candidates = new LinkedHashSet<>(ids);
+            } else {
+                candidates.retainAll(new HashSet<>(ids));
+            }
+        }
+        if (candidates == null || !isSelective(candidates, index)) {
+            return null;
+        }
+        return new ArrayList<>(candidates);
+    }
+
+    /**
+     * Checks whether trigram index candidates are few enough that fetching
+     * them by ID beats a single LIKE scan of the table.
+     *
+     * @param candidates The candidate IDs
+     * @param index      The index they came from
+     * @return true if the candidates should be fetched by ID
+     */
+    private static boolean isSelective(
+        Collection<Integer> candidates,
+        TrigramIndex index
+    ) {
+        int count = candidates.size();
+        return (
+            count <= ID_CHUNK_SIZE ||
+            (count <= MAX_INDEXED_CANDIDATES &&
+             count <= index.getContactCount() * MAX_INDEXED_CANDIDATE_SHARE)
+        );
+    }
+
+    /**
+     * Loads the candidate contacts that also satisfy the given condition.
+     * The condition re-checks every candidate against the stored columns,
+     * so the result matches a plain WHERE query exactly.
+     *
+     * @param candidateIds Sorted candidate contact IDs
+     * @param condition    SQL condition with "?" placeholders
+     * @param values       Values bound to the condition's placeholders
+     * @return List of matching contacts in contact ID order
+     * @throws SQLException If a query fails
+     */
+    private List<Contact> fetchCandidates(
+        List<Integer> candidateIds,
+        String condition,
+        List<String> values
+    ) throws SQLException {
+        List<Contact> contacts = new ArrayList<>();
+        if (candidateIds.isEmpty()) {
+            return contacts;
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            for (List<Integer> chunk : chunk(candidateIds)) {
+                String sql =
+                    "SELECT * FROM contacts WHERE contact_id IN (" +
+                    placeholders(chunk.size()) +
+                    ") AND (" +
+                    condition +
+                    ") ORDER BY contact_id";
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    bindIds(pstmt, chunk);
+                    for (int i = 0; i < values.size(); i++) {
+                        pstmt.setString(chunk.size() + i + 1, values.get(i));
+                    }
+
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        contacts.add(extractContactFromResultSet(rs));
+                    }
                 }
             }
-        } catch (SQLException e) {
-            System.err.println("Error adding contact: " + e.getMessage());
         }
 
-        return -1;
+        return contacts;
     }
 
     /**
-     * Updates an existing contact in the database.
+     * Finds contacts whose first name, last name, nickname or email starts
+     * with the given prefix, for type-ahead lookup. Answered from the
+     * in-memory {@link PrefixIndex} without querying the database. The index
+     * is built in the background on first use and rebuilt once it is older
+     * than the reconcile interval; until the first build finishes, lookups
+     * are answered from the indexed search key columns instead.
      *
-     * @param contact The Contact object with updated information
-     * @return true if update successful, false otherwise
+     * @param prefix The typed prefix
+     * @param limit  The maximum number of results
+     * @return Up to limit contact IDs, in alphabetical order of the matched term
      */
-    public boolean updateContact(Contact contact) {
-        String sql =
-            "UPDATE contacts SET first_name = ?, middle_name = ?, last_name = ?, " +
-            "nickname = ?, phone_primary = ?, phone_secondary = ?, email = ?, " +
-            "linkedin_url = ?, birth_date = ? WHERE contact_id = ?";
-
-        try (
-            Connection conn = dbManager.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
-        ) {
-            pstmt.setString(1, contact.getFirstName());
-            pstmt.setString(2, contact.getMiddleName());
-            pstmt.setString(3, contact.getLastName());
-            pstmt.setString(4, contact.getNickname());
-            pstmt.setString(5, contact.getPhonePrimary());
-            pstmt.setString(6, contact.getPhoneSecondary());
-            pstmt.setString(7, contact.getEmail());
-            pstmt.setString(8, contact.getLinkedinUrl());
-            pstmt.setDate(9, contact.getBirthDate());
-            pstmt.setInt(10, contact.getContactId());
+    public List<Integer> lookupContactIds(String prefix, int limit) {
+        String trimmed = prefix.trim();
+        if (trimmed.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        } catch (SQLException e) {
-            System.err.println("Error updating contact: " + e.getMessage());
-            return false;
+        PrefixIndex index = prefixIndex;
+        if (index == null || index.isOlderThan(SEARCH_INDEX_RECONCILE_INTERVAL_MS)) {
+            startIndexBuild(
+                prefixIndexBuilding,
+                "contact-prefix-index-builder",
+                PrefixIndex::new,
+                fresh -> {
+                    PrefixIndex previous = prefixIndex;
+                    prefixIndex = fresh;
+                    if (previous != null) {
+                        removeChangeListener(previous);
+                    }
+                }
+            );
         }
+        if (index == null) {
+            return lookupContactIdsInDatabase(trimmed, limit);
+        }
+        return index.lookup(trimmed, limit);
     }
 
     /**
-     * Deletes a contact from the database.
+     * Answers a type-ahead lookup from the search key columns, in the same
+     * order as {@link PrefixIndex#lookup(String, int)}. Each column returns
+     * at most limit rows through its index, which is enough to find the
+     * first limit distinct contacts.
      *
-     * @param contactId The ID of the contact to delete
-     * @return true if deletion successful, false otherwise
+     * @param prefix The typed prefix
+     * @param limit  The maximum number of results
+     * @return Up to limit contact IDs, or an empty list on error
      */
-    public boolean deleteContact(int contactId) {
-        String sql = "DELETE FROM contacts WHERE contact_id = ?";
+    private List<Integer> lookupContactIdsInDatabase(String prefix, int limit) {
+        String[] fields = { "first_name", "last_name", "nickname", "email" };
+        StringBuilder sql = new StringBuilder();
+        for (String field : fields) {
+            String column = field + Contact.SEARCH_KEY_SUFFIX;
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT contact_id, ")
+                .append(column)
+                .append(" AS term FROM contacts WHERE ")
+                .append(column)
+                .append(" LIKE ? ORDER BY ")
+                .append(column)
+                .append(", contact_id LIMIT ?)");
+        }
+        sql.append(" ORDER BY term, contact_id");
 
+        // Wildcards typed by the user are matched literally
+        String pattern = SearchKeyUtils.searchKey(prefix)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_") + "%";
+
+        Set<Integer> found = new LinkedHashSet<>();
         try (
             Connection conn = dbManager.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
+            PreparedStatement pstmt = conn.prepareStatement(sql.toString())
         ) {
-            pstmt.setInt(1, contactId);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            for (int i = 0; i < fields.length; i++) {
+                pstmt.setString(2 * i + 1, pattern);
+                pstmt.setInt(2 * i + 2, limit);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next() && found.size() < limit) {
+                found.add(rs.getInt(1));
+            }
         } catch (SQLException e) {
-            System.err.println("Error deleting contact: " + e.getMessage());
-            return false;
+            System.err.println("Error looking up contacts: " + e.getMessage());
         }
+        return new ArrayList<>(found);
     }
 
     /**
-     * Deletes multiple contacts from the database.
+     * Gets the trigram index. It is built in the background on first use and
+     * rebuilt once it is older than the reconcile interval; searches keep
+     * using the current index while a rebuild runs.
      *
-     * @param contactIds List of contact IDs to delete
-     * @return The number of contacts successfully deleted
+     * @return The index, or null until the first build has finished
      */
-    public int deleteContacts(List<Integer> contactIds) {
-        if (contactIds == null || contactIds.isEmpty()) {
-            return 0;
-        }
-
-        int deletedCount = 0;
-        for (int contactId : contactIds) {
-            if (deleteContact(contactId)) {
-                deletedCount++;
-            }
+    private TrigramIndex getTrigramIndex() {
+        TrigramIndex index = trigramIndex;
+        if (index == null || index.isOlderThan(SEARCH_INDEX_RECONCILE_INTERVAL_MS)) {
+            startIndexBuild(
+                trigramIndexBuilding,
+                "contact-trigram-index-builder",
+                TrigramIndex::new,
+                fresh -> {
+                    TrigramIndex previous = trigramIndex;
+                    trigramIndex = fresh;
+                    if (previous != null) {
+                        removeChangeListener(previous);
+                    }
+                }
+            );
         }
-        return deletedCount;
+        return index;
     }
 
     /**
-     * Searches contacts by a single field with exact or partial match.
+     * Fills a new index from the contacts table on a background thread,
+     * unless a build guarded by the same flag is already running. Writes
+     * reach the index through an {@link IndexBuilder} from the start, so
+     * none made while the table is read is missed or undone by a stale row.
+     * Once filled, the index listens for writes itself and is published.
      *
-     * @param fieldName  The field name to search
-     * @param value      The value to search for
-     * @param exactMatch true for exact match, false for partial match
-     * @return List of matching contacts
+     * @param <T>        The index type
+     * @param building   Flag set while a build of this index runs
+     * @param threadName Name of the builder thread
+     * @param factory    Creates the empty index
+     * @param publish    Swaps the filled index in for the previous one
      */
-    public List<Contact> searchByField(
-        String fieldName,
-        String value,
-        boolean exactMatch
+    private <T extends ContactChangeListener> void startIndexBuild(
+        AtomicBoolean building,
+        String threadName,
+        Supplier<T> factory,
+        Consumer<T> publish
     ) {
-        List<Contact> contacts = new ArrayList<>();
-        String sql;
-
-        if (exactMatch) {
-            sql = "SELECT * FROM contacts WHERE " + fieldName + " = ?";
-        } else {
-            sql = "SELECT * FROM contacts WHERE " + fieldName + " LIKE ?";
+        if (!building.compareAndSet(false, true)) {
+            return;
         }
 
-        try (
-            Connection conn = dbManager.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
-        ) {
-            if (exactMatch) {
-                pstmt.setString(1, value);
-            } else {
-                pstmt.setString(1, "%" + value + "%");
+        Thread builder = new Thread(() -> {
+            T fresh = factory.get();
+            IndexBuilder filling = new IndexBuilder(fresh);
+            try {
+                addChangeListener(filling);
+                if (streamAllContacts(filling::contactRead) < 0) {
+                    return;
+                }
+                // Registered before the builder goes away; a write seen by
+                // both is applied twice, which the index ignores
+                addChangeListener(fresh);
+                publish.accept(fresh);
+            } finally {
+                removeChangeListener(filling);
+                building.set(false);
             }
+        }, threadName);
+        builder.setDaemon(true);
+        builder.start();
+    }
 
-            ResultSet rs = pstmt.executeQuery();
+    /**
+     * Streams every contact to a consumer in contact ID order.
+     * Rows are read through a forward-only cursor and handed over as they
+     * arrive, so the whole table can be processed in constant memory.
+     * The consumer must not block for long, as the connection stays leased
+     * until the last row has been read.
+     *
+     * @param consumer Callback receiving each contact
+     * @return The number of contacts delivered, or -1 if the query failed
+     */
+    public int streamAllContacts(Consumer<Contact> consumer) {
+        String sql = "SELECT * FROM contacts ORDER BY contact_id";
 
-            while (rs.next()) {
-                contacts.add(extractContactFromResultSet(rs));
+        try (
+            Connection conn = dbManager.getConnection();
+            Statement stmt = conn.createStatement(
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY
+            )
+        ) {
+            stmt.setFetchSize(STREAMING_FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                return deliverRows(rs, consumer);
             }
         } catch (SQLException e) {
-            System.err.println("Error searching contacts: " + e.getMessage());
+            System.err.println("Error streaming contacts: " + e.getMessage());
+            return -1;
         }
-
-        return contacts;
     }
 
     /**
-     * Searches contacts using flexible search criteria with multiple fields.
+     * Streams the contacts matching the given criteria to a consumer.
+     * Works like {@link #streamAllContacts(Consumer)} but filters in the database.
      *
      * @param criteria The SearchCriteria object containing search parameters
-     * @return List of matching contacts
+     * @param consumer Callback receiving each matching contact
+     * @return The number of contacts delivered, or -1 if the query failed
      */
-    public List<Contact> searchByCriteria(SearchCriteria criteria) {
-        List<Contact> contacts = new ArrayList<>();
-
+    public int streamContactsByCriteria(
+        SearchCriteria criteria,
+        Consumer<Contact> consumer
+    ) {
         if (!criteria.hasCriteria()) {
-            return getAllContacts();
+            return streamAllContacts(consumer);
         }
 
-        String whereClause = criteria.toSQLWhereClause();
-        String sql = "SELECT * FROM contacts WHERE " + whereClause;
+        String sql =
+            "SELECT * FROM contacts WHERE " + criteria.toSQLWhereClause();
 
         try (
             Connection conn = dbManager.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
+            PreparedStatement pstmt = conn.prepareStatement(
+                sql,
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY
+            )
         ) {
             List<String> values = criteria.getParameterValues();
             for (int i = 0; i < values.size(); i++) {
                 pstmt.setString(i + 1, values.get(i));
             }
+            pstmt.setFetchSize(STREAMING_FETCH_SIZE);
 
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                contacts.add(extractContactFromResultSet(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return deliverRows(rs, consumer);
             }
         } catch (SQLException e) {
             System.err.println(
-                "Error searching contacts with criteria: " + e.getMessage()
+                "Error streaming contacts with criteria: " + e.getMessage()
             );
+            return -1;
         }
+    }
 
-        return contacts;
+    /**
+     * Streams the contacts matching the given criteria to a consumer, like
+     * {@link #streamContactsByCriteria(SearchCriteria, Consumer)}, but reads
+     * the whole table through a cursor and filters every row in memory with
+     * the compiled criteria instead of building SQL.
+     *
+     * @param criteria The SearchCriteria object containing search parameters
+     * @param consumer Callback receiving each matching contact
+     * @return The number of contacts delivered, or -1 if the query failed
+     * @throws IllegalArgumentException If a criterion names an unknown field
+     *                                  or can only be evaluated by the
+     *                                  database
+     */
+    public int streamMatchingContacts(
+        SearchCriteria criteria,
+        Consumer<Contact> consumer
+    ) {
+        Predicate<Contact> predicate = SearchCriteriaCompiler.compile(criteria);
+        int[] delivered = { 0 };
+        int scanned = streamAllContacts(contact -> {
+            if (predicate.test(contact)) {
+                consumer.accept(contact);
+                delivered[0]++;
+            }
+        });
+        return scanned < 0 ? -1 : delivered[0];
+    }
+
+    /**
+     * Hands every remaining row of a result set to a consumer.
+     *
+     * @param rs       The result set positioned before the first row
+     * @param consumer Callback receiving each contact
+     * @return The number of rows delivered
+     * @throws SQLException If reading a row fails
+     */
+    private int deliverRows(ResultSet rs, Consumer<Contact> consumer)
+        throws SQLException {
+        int count = 0;
+        while (rs.next()) {
+            consumer.accept(extractContactFromResultSet(rs));
+            count++;
+        }
+        return count;
     }
 
     /**
      * Sorts a list of contacts by a specified field in ascending or descending
-     * order.
+     * order. Uses {@link ContactSorter}, which extracts each contact's sort
+     * key once; use it directly to sort by several fields.
      *
      * @param contacts  The list of contacts to sort
      * @param fieldName The field name to sort by
      * @param ascending true for ascending order, false for descending
      * @return Sorted list of contacts
+     * @throws IllegalArgumentException If the field cannot be sorted
      */
     public List<Contact> sortContacts(
         List<Contact> contacts,
@@ -326,203 +1716,224 @@ public class ContactManager {
             return contacts;
         }
 
-        contacts.sort((c1, c2) -> {
-            try {
-                // Special handling for contact_id (integer field)
-                if (fieldName.equalsIgnoreCase("contact_id")) {
-                    int id1 = c1.getContactId();
-                    int id2 = c2.getContactId();
-                    int comparison = Integer.compare(id1, id2);
-                    return ascending ? comparison : -comparison;
-                }
-
-                // Special handling for birth_date
-                if (fieldName.equalsIgnoreCase("birth_date")) {
-                    java.sql.Date date1 = c1.getBirthDate();
-                    java.sql.Date date2 = c2.getBirthDate();
-
-                    int comparison;
-                    if (date1 == null && date2 == null) {
-                        comparison = 0;
-                    } else if (date1 == null) {
-                        comparison = 1;
-                    } else if (date2 == null) {
-                        comparison = -1;
-                    } else {
-                        comparison = date1.compareTo(date2);
-                    }
-                    return ascending ? comparison : -comparison;
-                }
-
-                // String comparison for other fields
-                String value1 = getFieldValue(c1, fieldName);
-                String value2 = getFieldValue(c2, fieldName);
-
-                int comparison;
-                if (value1 == null && value2 == null) {
-                    comparison = 0;
-                } else if (value1 == null) {
-                    comparison = 1;
-                } else if (value2 == null) {
-                    comparison = -1;
-                } else {
-                    comparison = value1.compareToIgnoreCase(value2);
-                }
-
-                return ascending ? comparison : -comparison;
-            } catch (Exception e) {
-                return 0;
-            }
-        });
-
+        ContactSorter.by(fieldName, ascending).sort(contacts);
         return contacts;
     }
 
     /**
-     * Gets the value of a specified field from a Contact object.
+     * Selects the first k contacts of a list in the given order without
+     * sorting the whole list (see {@link ContactSorter#topK(List, int)}).
      *
-     * @param contact   The Contact object
-     * @param fieldName The field name
-     * @return The field value as a String
+     * @param contacts  The contacts to select from (left unchanged)
+     * @param fieldName The field name to sort by
+     * @param ascending true for ascending order, false for descending
+     * @param k         The number of contacts to select
+     * @return Up to k contacts in sort order
+     * @throws IllegalArgumentException If the field cannot be sorted
      */
-    private String getFieldValue(Contact contact, String fieldName) {
-        switch (fieldName.toLowerCase()) {
-            case "contact_id":
-                return String.valueOf(contact.getContactId());
-            case "first_name":
-                return contact.getFirstName();
-            case "middle_name":
-                return contact.getMiddleName();
-            case "last_name":
-                return contact.getLastName();
-            case "nickname":
-                return contact.getNickname();
-            case "phone_primary":
-                return contact.getPhonePrimary();
-            case "phone_secondary":
-                return contact.getPhoneSecondary();
-            case "email":
-                return contact.getEmail();
-            case "linkedin_url":
-                return contact.getLinkedinUrl();
-            case "birth_date":
-                return contact.getBirthDate() != null
-                    ? contact.getBirthDate().toString()
-                    : null;
-            default:
-                return "";
+    public List<Contact> topK(
+        List<Contact> contacts,
+        String fieldName,
+        boolean ascending,
+        int k
+    ) {
+        return ContactSorter.by(fieldName, ascending).topK(contacts, k);
+    }
+
+    /**
+     * Selects the first k contacts of the whole table in the given order
+     * while streaming it, holding only k contacts in memory. Useful for
+     * orderings the database cannot serve from an index.
+     *
+     * @param fieldName The field name to sort by
+     * @param ascending true for ascending order, false for descending
+     * @param k         The number of contacts to select
+     * @return Up to k contacts in sort order, or an empty list on error
+     * @throws IllegalArgumentException If the field cannot be sorted
+     */
+    public List<Contact> streamTopK(String fieldName, boolean ascending, int k) {
+        ContactSorter.TopK collector = ContactSorter
+            .by(fieldName, ascending)
+            .topKCollector(k);
+        if (streamAllContacts(collector) < 0) {
+            return new ArrayList<>();
         }
+        return collector.result();
     }
 
     /**
      * Gets statistical information about contacts.
+     * The statistics are kept in memory and adjusted on every contact write
+     * made through this manager, so this call does not depend on the table
+     * size. They are rebuilt from the database on first use and whenever they
+     * are older than the reconciliation interval.
      *
      * @return Map containing various statistics
      */
     public Map<String, Object> getContactStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-
-        try (
-            Connection conn = dbManager.getConnection();
-            Statement stmt = conn.createStatement()
+        ContactStatistics current = statistics;
+        if (
+            current == null ||
+            current.isOlderThan(STATISTICS_RECONCILE_INTERVAL_MS)
         ) {
-            // Total contacts
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM contacts");
-            if (rs.next()) {
-                stats.put("totalContacts", rs.getInt(1));
+            current = reloadStatistics();
+            if (current == null) {
+                return computeContactStatistics();
             }
+        }
 
-            // Contacts with LinkedIn
-            rs = stmt.executeQuery(
-                "SELECT COUNT(*) FROM contacts WHERE linkedin_url IS NOT NULL AND linkedin_url != ''"
+        if (current.isExtremesStale()) {
+            current.setExtremes(
+                findContactByBirthDate(false),
+                findContactByBirthDate(true)
             );
-            if (rs.next()) {
-                stats.put("contactsWithLinkedIn", rs.getInt(1));
-            }
+        }
+        return current.toMap();
+    }
 
-            // Contacts without LinkedIn
-            rs = stmt.executeQuery(
-                "SELECT COUNT(*) FROM contacts WHERE linkedin_url IS NULL OR linkedin_url = ''"
-            );
-            if (rs.next()) {
-                stats.put("contactsWithoutLinkedIn", rs.getInt(1));
-            }
+    /**
+     * Rebuilds the in-memory statistics by streaming the contacts table and
+     * swaps them in as the active change listener.
+     *
+     * @return The new statistics, or null if the table could not be read
+     */
+    private ContactStatistics reloadStatistics() {
+        ContactStatistics fresh = new ContactStatistics();
+        if (streamAllContacts(fresh::contactAdded) < 0) {
+            return null;
+        }
 
-            // Most common first names
-            rs = stmt.executeQuery(
-                "SELECT first_name, COUNT(*) as count FROM contacts GROUP BY first_name ORDER BY count DESC LIMIT 5"
-            );
-            List<Map<String, Object>> commonFirstNames = new ArrayList<>();
-            while (rs.next()) {
-                Map<String, Object> nameInfo = new HashMap<>();
-                nameInfo.put("name", rs.getString("first_name"));
-                nameInfo.put("count", rs.getInt("count"));
-                commonFirstNames.add(nameInfo);
-            }
-            stats.put("commonFirstNames", commonFirstNames);
+        if (statistics != null) {
+            removeChangeListener(statistics);
+        }
+        statistics = fresh;
+        addChangeListener(fresh);
+        return fresh;
+    }
 
-            // Most common last names
-            rs = stmt.executeQuery(
-                "SELECT last_name, COUNT(*) as count FROM contacts GROUP BY last_name ORDER BY count DESC LIMIT 5"
-            );
-            List<Map<String, Object>> commonLastNames = new ArrayList<>();
-            while (rs.next()) {
-                Map<String, Object> nameInfo = new HashMap<>();
-                nameInfo.put("name", rs.getString("last_name"));
-                nameInfo.put("count", rs.getInt("count"));
-                commonLastNames.add(nameInfo);
-            }
-            stats.put("commonLastNames", commonLastNames);
+    /**
+     * Finds the youngest or oldest contact using the birth date index.
+     *
+     * @param oldest true for the oldest contact, false for the youngest
+     * @return The contact, or null if there are no contacts
+     */
+    private Contact findContactByBirthDate(boolean oldest) {
+        String sql =
+            "SELECT * FROM contacts ORDER BY birth_date " +
+            (oldest ? "ASC" : "DESC") +
+            " LIMIT 1";
 
-            // Youngest contact
-            rs = stmt.executeQuery(
-                "SELECT first_name, last_name, birth_date FROM contacts ORDER BY birth_date DESC LIMIT 1"
-            );
+        try (
+            Connection conn = dbManager.getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)
+        ) {
             if (rs.next()) {
-                stats.put(
-                    "youngestContact",
-                    rs.getString("first_name") + " " + rs.getString("last_name")
-                );
-                stats.put("youngestBirthDate", rs.getDate("birth_date"));
+                return extractContactFromResultSet(rs);
             }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving contact: " + e.getMessage());
+        }
 
-            // Oldest contact
-            rs = stmt.executeQuery(
-                "SELECT first_name, last_name, birth_date FROM contacts ORDER BY birth_date ASC LIMIT 1"
-            );
-            if (rs.next()) {
-                stats.put(
-                    "oldestContact",
-                    rs.getString("first_name") + " " + rs.getString("last_name")
-                );
-                stats.put("oldestBirthDate", rs.getDate("birth_date"));
-            }
+        return null;
+    }
 
-            // Average age
-            rs = stmt.executeQuery(
-                "SELECT AVG(TIMESTAMPDIFF(YEAR, birth_date, CURDATE())) as avg_age FROM contacts"
-            );
+    /**
+     * Computes statistical information about contacts directly in the database,
+     * bypassing the in-memory statistics.
+     * All counters, the average age, the birth month histogram and the
+     * youngest/oldest birth dates come from one aggregate pass over the table;
+     * the top names and the youngest/oldest contacts come from a second query
+     * that UNIONs their small LIMITed lookups into one round-trip.
+     *
+     * @return Map containing various statistics
+     */
+    public Map<String, Object> computeContactStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+
+        StringBuilder aggregateSql = new StringBuilder(
+            "SELECT COUNT(*) AS total, " +
+            "COALESCE(SUM(linkedin_url IS NOT NULL AND linkedin_url != ''), 0) AS with_linkedin, " +
+            "COALESCE(SUM(phone_secondary IS NOT NULL AND phone_secondary != ''), 0) AS with_secondary, " +
+            "AVG(TIMESTAMPDIFF(YEAR, birth_date, CURDATE())) AS avg_age"
+        );
+        for (int month = 1; month <= 12; month++) {
+            aggregateSql
+                .append(", COALESCE(SUM(MONTH(birth_date) = ")
+                .append(month)
+                .append("), 0) AS month_")
+                .append(month);
+        }
+        aggregateSql.append(" FROM contacts");
+
+        String rankingSql =
+            "(SELECT 'first' AS kind, MIN(first_name) AS name, COUNT(*) AS cnt, CAST(NULL AS CHAR) AS last_name, CAST(NULL AS DATE) AS birth_date " +
+            "FROM contacts WHERE first_name_search IS NOT NULL " +
+            "GROUP BY first_name_search ORDER BY cnt DESC LIMIT 5) " +
+            "UNION ALL " +
+            "(SELECT 'last', MIN(last_name), COUNT(*) AS cnt, NULL, NULL " +
+            "FROM contacts WHERE last_name_search IS NOT NULL " +
+            "GROUP BY last_name_search ORDER BY cnt DESC LIMIT 5) " +
+            "UNION ALL " +
+            "(SELECT 'youngest', first_name, 0, last_name, birth_date " +
+            "FROM contacts ORDER BY birth_date DESC LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT 'oldest', first_name, 0, last_name, birth_date " +
+            "FROM contacts ORDER BY birth_date ASC LIMIT 1)";
+
+        try (
+            Connection conn = dbManager.getConnection();
+            Statement stmt = conn.createStatement()
+        ) {
+            ResultSet rs = stmt.executeQuery(aggregateSql.toString());
             if (rs.next()) {
+                int total = rs.getInt("total");
+                int withLinkedIn = rs.getInt("with_linkedin");
+                stats.put("totalContacts", total);
+                stats.put("contactsWithLinkedIn", withLinkedIn);
+                stats.put("contactsWithoutLinkedIn", total - withLinkedIn);
+                stats.put("contactsWithSecondaryPhone", rs.getInt("with_secondary"));
                 stats.put("averageAge", rs.getDouble("avg_age"));
-            }
 
-            // Contacts by birth month
-            rs = stmt.executeQuery(
-                "SELECT MONTH(birth_date) as month, COUNT(*) as count FROM contacts GROUP BY MONTH(birth_date) ORDER BY count DESC"
-            );
-            Map<Integer, Integer> birthMonths = new HashMap<>();
-            while (rs.next()) {
-                birthMonths.put(rs.getInt("month"), rs.getInt("count"));
+                Map<Integer, Integer> birthMonths = new HashMap<>();
+                for (int month = 1; month <= 12; month++) {
+                    int count = rs.getInt("month_" + month);
+                    if (count > 0) {
+                        birthMonths.put(month, count);
+                    }
+                }
+                stats.put("birthMonths", birthMonths);
             }
-            stats.put("birthMonths", birthMonths);
 
-            // Contacts with secondary phone
-            rs = stmt.executeQuery(
-                "SELECT COUNT(*) FROM contacts WHERE phone_secondary IS NOT NULL AND phone_secondary != ''"
-            );
-            if (rs.next()) {
-                stats.put("contactsWithSecondaryPhone", rs.getInt(1));
+            List<Map<String, Object>> commonFirstNames = new ArrayList<>();
+            List<Map<String, Object>> commonLastNames = new ArrayList<>();
+            rs = stmt.executeQuery(rankingSql);
+            while (rs.next()) {
+                String kind = rs.getString("kind");
+                switch (kind) {
+                    case "first":
+                    case "last":
+                        Map<String, Object> nameInfo = new HashMap<>();
+                        nameInfo.put("name", rs.getString("name"));
+                        nameInfo.put("count", rs.getInt("cnt"));
+                        if (kind.equals("first")) {
+                            commonFirstNames.add(nameInfo);
+                        } else {
+                            commonLastNames.add(nameInfo);
+                        }
+                        break;
+                    default:
+                        String prefix = kind.equals("youngest") ? "youngest" : "oldest";
+                        stats.put(
+                            prefix + "Contact",
+                            rs.getString("name") + " " + rs.getString("last_name")
+                        );
+                        stats.put(prefix + "BirthDate", rs.getDate("birth_date"));
+                        break;
+                }
             }
+            stats.put("commonFirstNames", commonFirstNames);
+            stats.put("commonLastNames", commonLastNames);
         } catch (SQLException e) {
             System.err.println(
                 "Error retrieving statistics: " + e.getMessage()
@@ -562,6 +1973,11 @@ public class ContactManager {
      * @return true if email exists, false otherwise
      */
     public boolean emailExists(String email) {
+        Integer cachedId = cache.findIdByEmail(email);
+        if (cachedId != null) {
+            return cachedId > 0;
+        }
+
         String sql = "SELECT COUNT(*) FROM contacts WHERE email = ?";
 
         try (
@@ -592,6 +2008,12 @@ public class ContactManager {
         String email,
         int excludeContactId
     ) {
+        Integer cachedId = cache.findIdByEmail(email);
+        if (cachedId != null) {
+            // Emails are unique, so the cached owner is the only candidate
+            return cachedId > 0 && cachedId != excludeContactId;
+        }
+
         String sql =
             "SELECT COUNT(*) FROM contacts WHERE email = ? AND contact_id != ?";
 
@@ -622,39 +2044,25 @@ public class ContactManager {
      * @return true if contact was added successfully, false otherwise
      */
     public boolean addContactWithId(Contact contact) {
-        // SQL Query: We include 'contact_id' in the list of columns to fill.
-        // The '?' symbols are placeholders that we will fill safely later.
-        String sql =
-            "INSERT INTO contacts (contact_id, first_name, middle_name, last_name, nickname, " +
-            "phone_primary, phone_secondary, email, linkedin_url, birth_date) " +
-            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
         // try-with-resources: This automatically closes the connection when done.
         try (
             Connection conn = dbManager.getConnection();
-            PreparedStatement pstmt = conn.prepareStatement(sql)
+            PreparedStatement pstmt = conn.prepareStatement(INSERT_CONTACT_WITH_ID_SQL)
         ) {
-            // 1. setInt: Fills the first '?' with the OLD ID (Critical Fix)
-            pstmt.setInt(1, contact.getContactId());
-
-            // 2. setString: Fills the text fields safely (Prevents SQL Injection hacking)
-            pstmt.setString(2, contact.getFirstName());
-            pstmt.setString(3, contact.getMiddleName());
-            pstmt.setString(4, contact.getLastName());
-            pstmt.setString(5, contact.getNickname());
-            pstmt.setString(6, contact.getPhonePrimary());
-            pstmt.setString(7, contact.getPhoneSecondary());
-            pstmt.setString(8, contact.getEmail());
-            pstmt.setString(9, contact.getLinkedinUrl());
-
-            // 3. setDate: Fills the date field. We convert Java Date to SQL Date.
-            pstmt.setDate(10, contact.getBirthDate());
+            // Same columns and binding as every other insert, so they cannot drift apart
+            bindInsertParameters(pstmt, contact);
+
+            // The OLD ID goes into the last '?' (Critical Fix)
+            pstmt.setInt(INSERT_PARAMETER_COUNT + 1, contact.getContactId());
 
             // executeUpdate: Sends the command to the database.
             // It returns the number of rows affected (should be 1).
             int rowsAffected = pstmt.executeUpdate();
 
             // If rows > 0, it means it worked!
+            if (rowsAffected > 0) {
+                fireContactAdded(contact);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             // If database fails, print the error
@@ -662,4 +2070,46 @@ public class ContactManager {
             return false;
         }
     }
+
+    /**
+     * Adds many contacts keeping their existing IDs, in one transaction using
+     * JDBC batch execution. Used to undo a batch delete: either every contact
+     * is restored or, if any row fails (e.g. its ID or email was taken in
+     * the meantime), none is.
+     *
+     * @param contacts The contacts to restore with their IDs
+     * @return true if all contacts were added, false otherwise
+     */
+    public boolean addContactsWithIds(List<Contact> contacts) {
+        if (contacts == null || contacts.isEmpty()) {
+            return false;
+        }
+
+        try {
+            inTransaction(conn -> {
+                try (
+                    PreparedStatement pstmt = conn.prepareStatement(
+                        INSERT_CONTACT_WITH_ID_SQL
+                    )
+                ) {
+                    for (int start = 0; start < contacts.size(); start += INSERT_BATCH_SIZE) {
+                        int end = Math.min(start + INSERT_BATCH_SIZE, contacts.size());
+                        for (Contact contact : contacts.subList(start, end)) {
+                            bindInsertParameters(pstmt, contact);
+                            pstmt.setInt(INSERT_PARAMETER_COUNT + 1, contact.getContactId());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error restoring contacts: " + e.getMessage());
+            return false;
+        }
+
+        fireContactsAdded(contacts);
+        return true;
+    }
 }
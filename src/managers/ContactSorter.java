@@ -0,0 +1,518 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import models.Contact;
+import utils.SearchKeyUtils;
+
+/**
+ * ContactSorter class sorting contacts in memory by one or more fields.
+ * Sort keys are extracted once per contact into plain arrays before sorting
+ * (a Schwartzian transform), and each field's kind and direction are fixed
+ * when the field is added, so a sort costs N key extractions followed by
+ * cheap array comparisons.
+ *
+ * A single numeric key (contact_id or birth_date) is packed together with
+ * the row position into a long[] and sorted as primitives. Other sorts
+ * merge-sort a primitive int[] of row positions with one comparator that
+ * reads the key arrays directly. Large inputs are sorted in parallel.
+ * Sorting is stable, and empty values sort after every real value, so they
+ * come last in ascending and first in descending order.
+ *
+ * When only the first few contacts are needed, {@link #topK(List, int)} and
+ * {@link #topKCollector(int)} select them with a bounded heap instead of
+ * sorting everything.
+ *
+ * Usage:
+ * {@code ContactSorter.by("last_name", true).thenBy("first_name", true).sort(list)}
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactSorter {
+
+    /** Inputs at least this large are sorted in parallel */
+    private static final int PARALLEL_SORT_THRESHOLD = 10_000;
+
+    /** Runs at most this long are sorted by insertion instead of merging */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /** Numeric key used for missing values; greater than every real key */
+    private static final int MISSING_NUMBER = Integer.MAX_VALUE;
+
+    // Per sort field, fixed when the field is added so that comparisons
+    // only index into arrays
+    private String[] fieldNames = new String[0];
+    private boolean[] ascending = new boolean[0];
+    private boolean[] numeric = new boolean[0];
+
+    /**
+     * A contact together with its extracted sort keys.
+     */
+    private static class Keyed {
+
+        private final Contact contact;
+        private final int[] numbers;
+        private final String[] texts;
+
+        Keyed(Contact contact, int fieldCount) {
+            this.contact = contact;
+            this.numbers = new int[fieldCount];
+            this.texts = new String[fieldCount];
+        }
+    }
+
+    /**
+     * The sort order over row positions: every field's keys are extracted
+     * into an array once, and comparing two rows only indexes into them.
+     */
+    private final class RowOrder {
+
+        // Per sort field; only the array matching the field's kind is set
+        private final int[][] numbers;
+        private final String[][] texts;
+
+        RowOrder(Contact[] rows) {
+            numbers = new int[fieldNames.length][];
+            texts = new String[fieldNames.length][];
+            for (int k = 0; k < fieldNames.length; k++) {
+                String field = fieldNames[k];
+                if (numeric[k]) {
+                    numbers[k] = new int[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        numbers[k][i] = numericKey(rows[i], field);
+                    }
+                } else {
+                    texts[k] = new String[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        texts[k][i] = textKey(rows[i], field);
+                    }
+                }
+            }
+        }
+
+        int compare(int a, int b) {
+            for (int k = 0; k < numbers.length; k++) {
+                int comparison = numeric[k]
+                    ? compareNumbers(numbers[k][a], numbers[k][b], ascending[k])
+                    : compareText(texts[k][a], texts[k][b], ascending[k]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Stable merge sort of a range of row positions. Halves of large ranges
+     * are sorted in parallel.
+     */
+    private static final class MergeSort extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RowOrder order;
+        private final int[] positions;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        MergeSort(RowOrder order, int[] positions, int[] buffer, int from, int to) {
+            this.order = order;
+            this.positions = positions;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                insertionSort();
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            MergeSort left = new MergeSort(order, positions, buffer, from, mid);
+            MergeSort right = new MergeSort(order, positions, buffer, mid, to);
+            if (to - from >= PARALLEL_SORT_THRESHOLD) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+            merge(mid);
+        }
+
+        private void insertionSort() {
+            for (int i = from + 1; i < to; i++) {
+                int row = positions[i];
+                int j = i - 1;
+                while (j >= from && order.compare(positions[j], row) > 0) {
+                    positions[j + 1] = positions[j];
+                    j--;
+                }
+                positions[j + 1] = row;
+            }
+        }
+
+        private void merge(int mid) {
+            if (order.compare(positions[mid - 1], positions[mid]) <= 0) {
+                return; // Already in order
+            }
+            System.arraycopy(positions, from, buffer, from, mid - from);
+            int left = from;
+            int right = mid;
+            int out = from;
+            while (left < mid && right < to) {
+                // Ties take the left row, which keeps the sort stable
+                if (order.compare(buffer[left], positions[right]) <= 0) {
+                    positions[out++] = buffer[left++];
+                } else {
+                    positions[out++] = positions[right++];
+                }
+            }
+            System.arraycopy(buffer, left, positions, out, mid - left);
+        }
+    }
+
+    /**
+     * Inner class collecting the first K contacts of a stream in sort order.
+     * Each contact's keys are extracted once when it arrives.
+     */
+    public class TopK implements Consumer<Contact> {
+
+        private final TopKSelector<Keyed> selector;
+
+        private TopK(int k) {
+            this.selector = new TopKSelector<>(k, ContactSorter.this::compareKeyed);
+        }
+
+        @Override
+        public void accept(Contact contact) {
+            selector.offer(extractKeys(contact));
+        }
+
+        /**
+         * Gets the selected contacts.
+         *
+         * @return Up to K contacts in sort order
+         */
+        public List<Contact> result() {
+            List<Contact> contacts = new ArrayList<>();
+            for (Keyed keyed : selector.result()) {
+                contacts.add(keyed.contact);
+            }
+            return contacts;
+        }
+    }
+
+    /**
+     * Private constructor; use {@link #by(String, boolean)}.
+     */
+    private ContactSorter() {
+    }
+
+    /**
+     * Creates a sorter with a primary sort field.
+     *
+     * @param fieldName The field name, e.g. "last_name" or "birth_date"
+     * @param ascending true for ascending order, false for descending
+     * @return The new sorter
+     * @throws IllegalArgumentException If the field cannot be sorted
+     */
+    public static ContactSorter by(String fieldName, boolean ascending) {
+        return new ContactSorter().thenBy(fieldName, ascending);
+    }
+
+    /**
+     * Adds a field used to order contacts that are equal on all previous fields.
+     *
+     * @param fieldName The field name
+     * @param ascending true for ascending order, false for descending
+     * @return This sorter for method chaining
+     * @throws IllegalArgumentException If the field cannot be sorted
+     */
+    public ContactSorter thenBy(String fieldName, boolean ascending) {
+        String field = fieldName.toLowerCase();
+        if (!isNumeric(field) && !isText(field)) {
+            throw new IllegalArgumentException("Cannot sort by field: " + fieldName);
+        }
+        int count = fieldNames.length;
+        fieldNames = Arrays.copyOf(fieldNames, count + 1);
+        this.ascending = Arrays.copyOf(this.ascending, count + 1);
+        numeric = Arrays.copyOf(numeric, count + 1);
+        fieldNames[count] = field;
+        this.ascending[count] = ascending;
+        numeric[count] = isNumeric(field);
+        return this;
+    }
+
+    /**
+     * Sorts the list in place.
+     *
+     * @param contacts The contacts to sort
+     */
+    public void sort(List<Contact> contacts) {
+        int size = contacts.size();
+        if (size < 2) {
+            return;
+        }
+
+        Contact[] rows = contacts.toArray(new Contact[0]);
+        Contact[] sorted = new Contact[size];
+
+        if (fieldNames.length == 1 && numeric[0]) {
+            long[] packed = packNumericKeys(rows, fieldNames[0], ascending[0]);
+            if (size >= PARALLEL_SORT_THRESHOLD) {
+                Arrays.parallelSort(packed);
+            } else {
+                Arrays.sort(packed);
+            }
+            for (int i = 0; i < size; i++) {
+                sorted[i] = rows[(int) packed[i]];
+            }
+        } else {
+            int[] positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = i;
+            }
+            MergeSort mergeSort = new MergeSort(
+                new RowOrder(rows),
+                positions,
+                new int[size],
+                0,
+                size
+            );
+            if (size >= PARALLEL_SORT_THRESHOLD) {
+                ForkJoinPool.commonPool().invoke(mergeSort);
+            } else {
+                mergeSort.compute();
+            }
+            for (int i = 0; i < size; i++) {
+                sorted[i] = rows[positions[i]];
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            contacts.set(i, sorted[i]);
+        }
+    }
+
+    /**
+     * Selects the first k contacts in sort order without sorting the whole
+     * list, in O(N log k) time.
+     *
+     * @param contacts The contacts to select from (left unchanged)
+     * @param k        The number of contacts to select
+     * @return Up to k contacts in sort order
+     */
+    public List<Contact> topK(List<Contact> contacts, int k) {
+        TopK collector = topKCollector(k);
+        for (Contact contact : contacts) {
+            collector.accept(contact);
+        }
+        return collector.result();
+    }
+
+    /**
+     * Creates a collector that keeps the first k contacts in sort order of
+     * everything passed to it, e.g. by a streaming query.
+     *
+     * @param k The number of contacts to keep
+     * @return The collector
+     */
+    public TopK topKCollector(int k) {
+        return new TopK(k);
+    }
+
+    /**
+     * Packs a numeric key and the row position into one long per row.
+     * The key (negated for descending order) fills the high 32 bits and the
+     * position the low 32 bits, so sorting the longs sorts by key and keeps
+     * equal keys in their original order.
+     *
+     * @param rows      The contacts
+     * @param field     The numeric field
+     * @param ascending The sort direction
+     * @return The packed keys
+     */
+    private static long[] packNumericKeys(
+        Contact[] rows,
+        String field,
+        boolean ascending
+    ) {
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            long key = numericKey(rows[i], field);
+            if (!ascending) {
+                key = -key;
+            }
+            packed[i] = (key << 32) | i;
+        }
+        return packed;
+    }
+
+    /**
+     * Extracts all sort keys of one contact.
+     *
+     * @param contact The contact
+     * @return The contact with its keys
+     */
+    private Keyed extractKeys(Contact contact) {
+        Keyed keyed = new Keyed(contact, fieldNames.length);
+        for (int k = 0; k < fieldNames.length; k++) {
+            String field = fieldNames[k];
+            if (numeric[k]) {
+                keyed.numbers[k] = numericKey(contact, field);
+            } else {
+                keyed.texts[k] = textKey(contact, field);
+            }
+        }
+        return keyed;
+    }
+
+    /**
+     * Compares two contacts by their extracted keys, field by field.
+     *
+     * @param a The first contact
+     * @param b The second contact
+     * @return Negative, zero or positive as a sorts before, with or after b
+     */
+    private int compareKeyed(Keyed a, Keyed b) {
+        for (int k = 0; k < fieldNames.length; k++) {
+            int comparison = numeric[k]
+                ? compareNumbers(a.numbers[k], b.numbers[k], ascending[k])
+                : compareText(a.texts[k], b.texts[k], ascending[k]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compares two numeric keys in the given direction. Missing values are
+     * greater than every real key.
+     *
+     * @param a         The first key
+     * @param b         The second key
+     * @param ascending The sort direction
+     * @return Negative, zero or positive as a sorts before, with or after b
+     */
+    private static int compareNumbers(int a, int b, boolean ascending) {
+        return ascending ? Integer.compare(a, b) : Integer.compare(b, a);
+    }
+
+    /**
+     * Compares two text keys in the given direction. Missing values are
+     * greater than every real key.
+     *
+     * @param a         The first key (may be null)
+     * @param b         The second key (may be null)
+     * @param ascending The sort direction
+     * @return Negative, zero or positive as a sorts before, with or after b
+     */
+    private static int compareText(String a, String b, boolean ascending) {
+        int comparison;
+        if (a == null || b == null) {
+            comparison = a == null ? (b == null ? 0 : 1) : -1;
+        } else {
+            comparison = a.compareTo(b);
+        }
+        return ascending ? comparison : -comparison;
+    }
+
+    /**
+     * Checks whether a field is sorted by a numeric key.
+     *
+     * @param field The lower-case field name
+     * @return true for contact_id and birth_date
+     */
+    private static boolean isNumeric(String field) {
+        return field.equals("contact_id") || field.equals("birth_date");
+    }
+
+    /**
+     * Checks whether a field is sorted by a collation key.
+     *
+     * @param field The lower-case field name
+     * @return true for the text columns of a contact
+     */
+    private static boolean isText(String field) {
+        switch (field) {
+            case "first_name":
+            case "middle_name":
+            case "last_name":
+            case "nickname":
+            case "phone_primary":
+            case "phone_secondary":
+            case "email":
+            case "linkedin_url":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the numeric sort key of a contact.
+     *
+     * @param contact The contact
+     * @param field   contact_id or birth_date
+     * @return The contact ID or the birth date as days since 1970-01-01,
+     *         or {@link #MISSING_NUMBER} if there is no birth date
+     */
+    private static int numericKey(Contact contact, String field) {
+        if (field.equals("contact_id")) {
+            return contact.getContactId();
+        }
+        return contact.getBirthDate() != null
+            ? (int) contact.getBirthDate().toLocalDate().toEpochDay()
+            : MISSING_NUMBER;
+    }
+
+    /**
+     * Gets the text sort key of a contact: the collation key of the field.
+     *
+     * @param contact The contact
+     * @param field   A text field
+     * @return The collation key, or null if the field is empty
+     */
+    private static String textKey(Contact contact, String field) {
+        switch (field) {
+            case "first_name":
+                return contact.getFirstNameKey();
+            case "last_name":
+                return contact.getLastNameKey();
+            case "middle_name":
+                return optionalKey(contact.getMiddleName());
+            case "nickname":
+                return optionalKey(contact.getNickname());
+            case "phone_primary":
+                return optionalKey(contact.getPhonePrimary());
+            case "phone_secondary":
+                return optionalKey(contact.getPhoneSecondary());
+            case "email":
+                return optionalKey(contact.getEmail());
+            default:
+                return optionalKey(contact.getLinkedinUrl());
+        }
+    }
+
+    /**
+     * Converts an optional text value to its collation key, treating empty
+     * strings as missing.
+     *
+     * @param value The value
+     * @return The collation key, or null if the value is null or empty
+     */
+    private static String optionalKey(String value) {
+        return value == null || value.isEmpty() ? null : SearchKeyUtils.collationKey(value);
+    }
+}
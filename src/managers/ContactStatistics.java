@@ -0,0 +1,355 @@
+package managers;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import models.Contact;
+
+/**
+ * ContactStatistics class keeping the contact statistics up to date in memory.
+ * It is filled once from the database and then adjusted on every contact
+ * write, so reading the statistics no longer depends on the table size.
+ * The average age is kept exact without touching every contact: the sum of
+ * birth years plus a day-of-year birthday histogram is enough to compute the
+ * same whole-year ages as TIMESTAMPDIFF(YEAR, birth_date, CURDATE()).
+ * Names are counted by their search key, so spellings that differ only in
+ * case, accents or trailing spaces count as one name, as in the database's
+ * GROUP BY over the search key columns.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class ContactStatistics implements ContactChangeListener {
+
+    /** How many entries the "most common names" lists contain */
+    private static final int TOP_NAME_COUNT = 5;
+
+    /** Index of the first name's cached search key */
+    private static final int FIRST_NAME_KEY = Contact.searchKeyIndex("first_name");
+
+    /** Index of the last name's cached search key */
+    private static final int LAST_NAME_KEY = Contact.searchKeyIndex("last_name");
+
+    /**
+     * Number of contacts sharing a name, and how often each spelling of it
+     * occurs.
+     */
+    private static class NameCount {
+
+        private int count;
+        private final Map<String, Integer> spellings = new HashMap<>(2);
+
+        /**
+         * Gets the most frequent spelling, the one shown for the name.
+         *
+         * @return The spelling; ties go to the alphabetically first one
+         */
+        String displayName() {
+            String best = null;
+            int bestCount = 0;
+            for (Map.Entry<String, Integer> entry : spellings.entrySet()) {
+                int n = entry.getValue();
+                if (
+                    n > bestCount ||
+                    (n == bestCount && entry.getKey().compareTo(best) < 0)
+                ) {
+                    best = entry.getKey();
+                    bestCount = n;
+                }
+            }
+            return best;
+        }
+    }
+
+    private final long loadedAt;
+
+    private int totalContacts;
+    private int contactsWithLinkedIn;
+    private int contactsWithSecondaryPhone;
+    private long birthYearSum;
+    private final int[] birthMonthCounts = new int[13];
+    private final int[][] birthDayCounts = new int[13][32];
+    private final Map<String, NameCount> firstNameCounts = new HashMap<>();
+    private final Map<String, NameCount> lastNameCounts = new HashMap<>();
+
+    private String youngestContact;
+    private Date youngestBirthDate;
+    private String oldestContact;
+    private Date oldestBirthDate;
+    private boolean extremesStale;
+
+    /**
+     * Constructor for ContactStatistics.
+     * Starts empty; contacts are added through {@link #contactAdded(Contact)}.
+     */
+    public ContactStatistics() {
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether the counters are older than the given age and should be
+     * reconciled against the database.
+     *
+     * @param maxAgeMs The maximum age in milliseconds
+     * @return true if the statistics were loaded longer ago than maxAgeMs
+     */
+    public boolean isOlderThan(long maxAgeMs) {
+        return System.currentTimeMillis() - loadedAt > maxAgeMs;
+    }
+
+    /**
+     * Checks whether the youngest/oldest contact must be looked up again
+     * because the previous one was removed or changed.
+     *
+     * @return true if the youngest/oldest values are outdated
+     */
+    public synchronized boolean isExtremesStale() {
+        return extremesStale;
+    }
+
+    /**
+     * Replaces the youngest and oldest contact after a fresh lookup.
+     *
+     * @param youngest The youngest contact, or null if there are no contacts
+     * @param oldest   The oldest contact, or null if there are no contacts
+     */
+    public synchronized void setExtremes(Contact youngest, Contact oldest) {
+        youngestContact = youngest != null ? displayName(youngest) : null;
+        youngestBirthDate = youngest != null ? youngest.getBirthDate() : null;
+        oldestContact = oldest != null ? displayName(oldest) : null;
+        oldestBirthDate = oldest != null ? oldest.getBirthDate() : null;
+        extremesStale = false;
+    }
+
+    @Override
+    public synchronized void contactAdded(Contact contact) {
+        apply(contact, 1);
+
+        Date birthDate = contact.getBirthDate();
+        if (birthDate != null && !extremesStale) {
+            if (youngestBirthDate == null || birthDate.after(youngestBirthDate)) {
+                youngestContact = displayName(contact);
+                youngestBirthDate = birthDate;
+            }
+            if (oldestBirthDate == null || birthDate.before(oldestBirthDate)) {
+                oldestContact = displayName(contact);
+                oldestBirthDate = birthDate;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact before, Contact after) {
+        contactRemoved(before);
+        contactAdded(after);
+    }
+
+    @Override
+    public synchronized void contactRemoved(Contact contact) {
+        apply(contact, -1);
+
+        Date birthDate = contact.getBirthDate();
+        if (
+            birthDate != null &&
+            (birthDate.equals(youngestBirthDate) ||
+                birthDate.equals(oldestBirthDate))
+        ) {
+            // Another contact may share the date; the caller looks it up again
+            extremesStale = true;
+        }
+    }
+
+    /**
+     * Builds the statistics map in the format returned by
+     * {@link ContactManager#getContactStatistics()}.
+     *
+     * @return Map containing the current statistics
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalContacts", totalContacts);
+        stats.put("contactsWithLinkedIn", contactsWithLinkedIn);
+        stats.put("contactsWithoutLinkedIn", totalContacts - contactsWithLinkedIn);
+        stats.put("contactsWithSecondaryPhone", contactsWithSecondaryPhone);
+        stats.put("averageAge", averageAge(LocalDate.now()));
+        stats.put("commonFirstNames", topNames(firstNameCounts));
+        stats.put("commonLastNames", topNames(lastNameCounts));
+
+        if (youngestBirthDate != null) {
+            stats.put("youngestContact", youngestContact);
+            stats.put("youngestBirthDate", youngestBirthDate);
+        }
+        if (oldestBirthDate != null) {
+            stats.put("oldestContact", oldestContact);
+            stats.put("oldestBirthDate", oldestBirthDate);
+        }
+
+        Map<Integer, Integer> birthMonths = new HashMap<>();
+        for (int month = 1; month <= 12; month++) {
+            if (birthMonthCounts[month] > 0) {
+                birthMonths.put(month, birthMonthCounts[month]);
+            }
+        }
+        stats.put("birthMonths", birthMonths);
+        return stats;
+    }
+
+    /**
+     * Adds (delta = 1) or removes (delta = -1) one contact from the counters.
+     *
+     * @param contact The contact
+     * @param delta   1 to add, -1 to remove
+     */
+    private void apply(Contact contact, int delta) {
+        totalContacts += delta;
+
+        if (isPresent(contact.getLinkedinUrl())) {
+            contactsWithLinkedIn += delta;
+        }
+        if (isPresent(contact.getPhoneSecondary())) {
+            contactsWithSecondaryPhone += delta;
+        }
+
+        adjustCount(
+            firstNameCounts,
+            contact.getSearchKey(FIRST_NAME_KEY),
+            contact.getFirstName(),
+            delta
+        );
+        adjustCount(
+            lastNameCounts,
+            contact.getSearchKey(LAST_NAME_KEY),
+            contact.getLastName(),
+            delta
+        );
+
+        if (contact.getBirthDate() != null) {
+            LocalDate birthDate = contact.getBirthDate().toLocalDate();
+            birthYearSum += (long) delta * birthDate.getYear();
+            birthMonthCounts[birthDate.getMonthValue()] += delta;
+            birthDayCounts[birthDate.getMonthValue()][birthDate.getDayOfMonth()] += delta;
+        }
+    }
+
+    /**
+     * Computes the average age in whole years as of the given day.
+     * Every contact's age is (this year - birth year), minus one for those
+     * whose birthday is still ahead this year.
+     *
+     * @param today The reference day
+     * @return The average age, or 0 if there are no contacts
+     */
+    private double averageAge(LocalDate today) {
+        if (totalContacts == 0) {
+            return 0.0;
+        }
+
+        long birthdaysAhead = 0;
+        int todayMonth = today.getMonthValue();
+        for (int day = today.getDayOfMonth() + 1; day <= 31; day++) {
+            birthdaysAhead += birthDayCounts[todayMonth][day];
+        }
+        for (int month = todayMonth + 1; month <= 12; month++) {
+            birthdaysAhead += birthMonthCounts[month];
+        }
+
+        long ageSum =
+            (long) totalContacts * today.getYear() - birthYearSum - birthdaysAhead;
+        return (double) ageSum / totalContacts;
+    }
+
+    /**
+     * Picks the most frequent names from a frequency map.
+     *
+     * @param counts Map from name key to number of contacts
+     * @return List of maps with "name" and "count", most frequent first
+     */
+    private static List<Map<String, Object>> topNames(Map<String, NameCount> counts) {
+        // Bounded heap of TOP_NAME_COUNT entries instead of sorting every name
+        TopKSelector<NameCount> selector = new TopKSelector<>(
+            TOP_NAME_COUNT,
+            (n1, n2) -> Integer.compare(n2.count, n1.count)
+        );
+        for (NameCount nameCount : counts.values()) {
+            selector.offer(nameCount);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (NameCount nameCount : selector.result()) {
+            Map<String, Object> nameInfo = new HashMap<>();
+            nameInfo.put("name", nameCount.displayName());
+            nameInfo.put("count", nameCount.count);
+            result.add(nameInfo);
+        }
+        return result;
+    }
+
+    /**
+     * Adds delta to a name's count, dropping names that reach zero.
+     *
+     * @param counts Map from name key to number of contacts
+     * @param key    The search key of the name
+     * @param name   The name as spelled on the contact
+     * @param delta  The change to apply
+     */
+    private static void adjustCount(
+        Map<String, NameCount> counts,
+        String key,
+        String name,
+        int delta
+    ) {
+        if (key == null) {
+            return;
+        }
+        String groupKey = stripTrailingSpaces(key);
+        NameCount nameCount = counts.computeIfAbsent(groupKey, k -> new NameCount());
+        nameCount.count += delta;
+        if (nameCount.count <= 0) {
+            counts.remove(groupKey);
+            return;
+        }
+        int spelled = nameCount.spellings.getOrDefault(name, 0) + delta;
+        if (spelled > 0) {
+            nameCount.spellings.put(name, spelled);
+        } else {
+            nameCount.spellings.remove(name);
+        }
+    }
+
+    /**
+     * Removes trailing spaces, which the database ignores when grouping.
+     *
+     * @param value The value
+     * @return The value without trailing spaces
+     */
+    private static String stripTrailingSpaces(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+
+    /**
+     * Checks whether an optional column holds a value (not NULL and not empty).
+     *
+     * @param value The column value
+     * @return true if the value is present
+     */
+    private static boolean isPresent(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * Formats a contact's name the way the statistics screen shows it.
+     *
+     * @param contact The contact
+     * @return First and last name separated by a space
+     */
+    private static String displayName(Contact contact) {
+        return contact.getFirstName() + " " + contact.getLastName();
+    }
+}
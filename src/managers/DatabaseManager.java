@@ -1,9 +1,11 @@
 package managers;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import models.Contact;
 
 /**
  * DatabaseManager class handling database connections and operations.
@@ -18,12 +20,51 @@ public class DatabaseManager {
     private static final String DB_URL = "jdbc:mysql://localhost:3306/contact_management";
     private static final String DB_USER = "myuser";
     private static final String DB_PASSWORD = "1234";
+    private static final String DB_OPTIONS = "?useUnicode=true&characterEncoding=UTF-8&serverTimezone=UTC";
 
-    private Connection connection;
+    // Prepared statement caching: every pooled connection keeps an LRU cache of
+    // server-side prepared statements keyed by SQL text, so closing a
+    // PreparedStatement parks it in the cache and the next prepareStatement()
+    // with the same SQL skips parsing and planning on the server.
+    private static final int STATEMENT_CACHE_SIZE = 250;
+    private static final int STATEMENT_CACHE_SQL_LIMIT = 2048;
+    private static final String STATEMENT_CACHE_OPTIONS =
+        "&useServerPrepStmts=true" +
+        "&cachePrepStmts=true" +
+        "&prepStmtCacheSize=" + STATEMENT_CACHE_SIZE +
+        "&prepStmtCacheSqlLimit=" + STATEMENT_CACHE_SQL_LIMIT +
+        "&useLocalSessionState=true";
+
+    // Lets the driver rewrite JDBC batches of INSERTs into multi-row INSERTs
+    private static final String BATCH_OPTIONS = "&rewriteBatchedStatements=true";
+
+    // Connection pool parameters
+    private static final int POOL_MIN_SIZE = 1;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000;
+    private static final long POOL_LEASE_TIMEOUT_MS = 10 * 1000;
+
+    // Binary-collated columns holding SearchKeyUtils.collationKey of the names
+    private static final String SORT_KEY_COLUMN_TYPE =
+        "VARCHAR(200) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin";
+
+    // Binary-collated columns holding SearchKeyUtils.searchKey of the text fields
+    private static final String SEARCH_KEY_COLUMN_TYPE =
+        "VARCHAR(300) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin";
+
+    // Text fields whose search key column is indexed
+    private static final String[] INDEXED_SEARCH_KEY_FIELDS = {
+        "first_name", "last_name", "nickname", "phone_primary", "email"
+    };
+
+    private ConnectionPool pool;
+
+    // Connection pinned to the transaction opened by beginTransaction() on this thread
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
 
     /**
-     * Constructor that initializes the database connection.
-     * Loads the MySQL JDBC driver and establishes a connection.
+     * Constructor that initializes the database connection pool.
+     * Loads the MySQL JDBC driver and opens the minimum number of connections.
      *
      * @throws SQLException If connection cannot be established
      */
@@ -32,37 +73,46 @@ public class DatabaseManager {
             // Load MySQL JDBC Driver
             Class.forName("com.mysql.cj.jdbc.Driver");
 
-            // Establish connection with UTF-8 encoding for Turkish character support
-            connection = DriverManager.getConnection(
-                DB_URL + "?useUnicode=true&characterEncoding=UTF-8&serverTimezone=UTC",
+            // Create the pool with UTF-8 encoding for Turkish character support
+            pool = new ConnectionPool(
+                DB_URL + DB_OPTIONS + STATEMENT_CACHE_OPTIONS + BATCH_OPTIONS,
                 DB_USER,
-                DB_PASSWORD
+                DB_PASSWORD,
+                POOL_MIN_SIZE,
+                POOL_MAX_SIZE,
+                POOL_IDLE_TIMEOUT_MS,
+                POOL_LEASE_TIMEOUT_MS
             );
+            pool.warmUp();
+            upgradeSchema();
 
             System.out.println("Database connection established successfully.");
         } catch (ClassNotFoundException e) {
             throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage(), e);
         } catch (SQLException e) {
+            if (pool != null) {
+                pool.close();
+            }
             throw new SQLException("Failed to connect to database: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Gets the active database connection.
+     * Leases a database connection from the pool.
+     * Closing the returned connection hands it back to the pool, so callers
+     * should always use it in a try-with-resources block.
+     * Inside a transaction started with {@link #beginTransaction()} the
+     * transaction's connection is returned instead, and closing it is a no-op.
      *
      * @return The database Connection object
-     * @throws SQLException If connection is closed or invalid
+     * @throws SQLException If no connection becomes available in time
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            // Reconnect if connection is closed
-            connection = DriverManager.getConnection(
-                DB_URL + "?useUnicode=true&characterEncoding=UTF-8&serverTimezone=UTC",
-                DB_USER,
-                DB_PASSWORD
-            );
+        Connection pinned = transactionConnection.get();
+        if (pinned != null) {
+            return ConnectionPool.nonClosingView(pinned);
         }
-        return connection;
+        return pool.borrow();
     }
 
     /**
@@ -71,25 +121,21 @@ public class DatabaseManager {
      * @return true if connection is valid, false otherwise
      */
     public boolean isConnectionValid() {
-        try {
-            return connection != null && !connection.isClosed() && connection.isValid(2);
+        try (Connection conn = getConnection()) {
+            return conn.isValid(2);
         } catch (SQLException e) {
             return false;
         }
     }
 
     /**
-     * Closes the database connection.
+     * Closes all pooled database connections.
      * Should be called when the application is shutting down.
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed successfully.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+        if (pool != null) {
+            pool.close();
+            System.out.println("Database connection closed successfully.");
         }
     }
 
@@ -101,18 +147,30 @@ public class DatabaseManager {
      * @throws SQLException If the SQL statement fails
      */
     public int executeUpdate(String sql) throws SQLException {
-        try (Statement stmt = getConnection().createStatement()) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
             return stmt.executeUpdate(sql);
         }
     }
 
     /**
      * Begins a database transaction.
+     * Pins one pooled connection to the current thread until commit or rollback.
      *
      * @throws SQLException If transaction cannot be started
      */
     public void beginTransaction() throws SQLException {
-        getConnection().setAutoCommit(false);
+        if (transactionConnection.get() != null) {
+            throw new SQLException("A transaction is already active on this thread");
+        }
+        Connection conn = pool.borrow();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        transactionConnection.set(conn);
     }
 
     /**
@@ -121,8 +179,14 @@ public class DatabaseManager {
      * @throws SQLException If commit fails
      */
     public void commit() throws SQLException {
-        getConnection().commit();
-        getConnection().setAutoCommit(true);
+        Connection conn = requireTransactionConnection();
+        try {
+            conn.commit();
+            conn.setAutoCommit(true);
+        } finally {
+            transactionConnection.remove();
+            conn.close();
+        }
     }
 
     /**
@@ -131,13 +195,31 @@ public class DatabaseManager {
      * @throws SQLException If rollback fails
      */
     public void rollback() throws SQLException {
+        Connection conn = requireTransactionConnection();
         try {
-            getConnection().rollback();
-            getConnection().setAutoCommit(true);
+            conn.rollback();
+            conn.setAutoCommit(true);
         } catch (SQLException e) {
             System.err.println("Error during rollback: " + e.getMessage());
             throw e;
+        } finally {
+            transactionConnection.remove();
+            conn.close();
+        }
+    }
+
+    /**
+     * Gets the connection pinned by beginTransaction() on this thread.
+     *
+     * @return The transaction connection
+     * @throws SQLException If no transaction is active
+     */
+    private Connection requireTransactionConnection() throws SQLException {
+        Connection conn = transactionConnection.get();
+        if (conn == null) {
+            throw new SQLException("No active transaction on this thread");
         }
+        return conn;
     }
 
     /**
@@ -168,26 +250,136 @@ public class DatabaseManager {
             "email VARCHAR(150) NOT NULL, " +
             "linkedin_url VARCHAR(255), " +
             "birth_date DATE NOT NULL, " +
+            "first_name_key " + SORT_KEY_COLUMN_TYPE + ", " +
+            "last_name_key " + SORT_KEY_COLUMN_TYPE + ", " +
+            searchKeyColumns("") +
             "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
+            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+            "INDEX idx_first_name_key (first_name_key), " +
+            "INDEX idx_last_name_key (last_name_key), " +
+            searchKeyIndexes("") +
             ") CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci";
 
-        try (Statement stmt = getConnection().createStatement()) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
             stmt.executeUpdate(createUsersTable);
             stmt.executeUpdate(createContactsTable);
             System.out.println("Database schema verified/created successfully.");
         }
     }
 
+    /**
+     * Adds columns introduced after the original schema to an existing
+     * contacts table. Does nothing when the table is already up to date or
+     * does not exist yet.
+     *
+     * @throws SQLException If the table cannot be altered
+     */
+    private void upgradeSchema() throws SQLException {
+        try (Connection conn = getConnection()) {
+            DatabaseMetaData meta = conn.getMetaData();
+            String catalog = conn.getCatalog();
+            try (ResultSet rs = meta.getTables(catalog, null, "contacts", null)) {
+                if (!rs.next()) {
+                    return;
+                }
+            }
+
+            if (!hasColumn(meta, catalog, "first_name_key")) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(
+                        "ALTER TABLE contacts " +
+                        "ADD COLUMN first_name_key " + SORT_KEY_COLUMN_TYPE + " AFTER birth_date, " +
+                        "ADD COLUMN last_name_key " + SORT_KEY_COLUMN_TYPE + " AFTER first_name_key, " +
+                        "ADD INDEX idx_first_name_key (first_name_key), " +
+                        "ADD INDEX idx_last_name_key (last_name_key)"
+                    );
+                }
+                System.out.println("Database schema upgraded: added name sort key columns.");
+            }
+
+            if (!hasColumn(meta, catalog, "first_name" + Contact.SEARCH_KEY_SUFFIX)) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(
+                        "ALTER TABLE contacts " +
+                        searchKeyColumns("ADD COLUMN ") +
+                        searchKeyIndexes("ADD ")
+                    );
+                }
+                System.out.println("Database schema upgraded: added search key columns.");
+            }
+        }
+    }
+
+    /**
+     * Checks whether the contacts table has a column.
+     *
+     * @param meta    The database metadata
+     * @param catalog The database name
+     * @param column  The column name
+     * @return true if the column exists
+     * @throws SQLException If the metadata cannot be read
+     */
+    private static boolean hasColumn(DatabaseMetaData meta, String catalog, String column)
+        throws SQLException {
+        try (ResultSet rs = meta.getColumns(catalog, null, "contacts", column)) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Builds the definitions of the search key columns, each followed by a
+     * comma.
+     *
+     * @param prefix Text put in front of every definition, e.g. "ADD COLUMN "
+     * @return The column definitions
+     */
+    private static String searchKeyColumns(String prefix) {
+        StringBuilder sql = new StringBuilder();
+        for (String field : Contact.getSearchKeyFields()) {
+            sql.append(prefix)
+                .append(field)
+                .append(Contact.SEARCH_KEY_SUFFIX)
+                .append(' ')
+                .append(SEARCH_KEY_COLUMN_TYPE)
+                .append(", ");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Builds the index definitions of the indexed search key columns,
+     * separated by commas.
+     *
+     * @param prefix Text put in front of every definition, e.g. "ADD "
+     * @return The index definitions
+     */
+    private static String searchKeyIndexes(String prefix) {
+        StringBuilder sql = new StringBuilder();
+        for (String field : INDEXED_SEARCH_KEY_FIELDS) {
+            if (sql.length() > 0) {
+                sql.append(", ");
+            }
+            String column = field + Contact.SEARCH_KEY_SUFFIX;
+            sql.append(prefix)
+                .append("INDEX idx_")
+                .append(column)
+                .append(" (")
+                .append(column)
+                .append(')');
+        }
+        return sql.toString();
+    }
+
     /**
      * Gets database metadata information.
      *
      * @return String containing database information
      */
     public String getDatabaseInfo() {
-        try {
-            return "Database: " + connection.getMetaData().getDatabaseProductName() +
-                   " " + connection.getMetaData().getDatabaseProductVersion();
+        try (Connection conn = getConnection()) {
+            return "Database: " + conn.getMetaData().getDatabaseProductName() +
+                   " " + conn.getMetaData().getDatabaseProductVersion();
         } catch (SQLException e) {
             return "Unable to retrieve database information";
         }
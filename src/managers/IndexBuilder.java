@@ -0,0 +1,89 @@
+package managers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import models.Contact;
+
+/**
+ * IndexBuilder class filling a new in-memory index from a full read of the
+ * contacts table while writes go on.
+ *
+ * The builder is registered as a change listener before the table is read
+ * and forwards every write to the index right away. The read sees the table
+ * as it was when its query started, so a row it delivers may be older than
+ * a write the index has already received. Rows of contacts written since
+ * the build started are therefore skipped: the index already holds their
+ * current state, or none if they were deleted. A write made after its row
+ * was read is simply applied on top of it.
+ *
+ * This requires an index whose updates are idempotent, i.e. adding a
+ * contact it already holds or removing one it does not hold changes
+ * nothing, and an update removes every term of the old state before adding
+ * every term of the new one.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+class IndexBuilder implements ContactChangeListener {
+
+    private final ContactChangeListener index;
+
+    // IDs of contacts written since the build started
+    private final Set<Integer> written = new HashSet<>();
+
+    /**
+     * Constructor for IndexBuilder.
+     *
+     * @param index The empty index to fill
+     */
+    IndexBuilder(ContactChangeListener index) {
+        this.index = index;
+    }
+
+    /**
+     * Adds a contact read from the table, unless it was written since the
+     * build started.
+     *
+     * @param contact The contact as read
+     */
+    synchronized void contactRead(Contact contact) {
+        if (!written.contains(contact.getContactId())) {
+            index.contactAdded(contact);
+        }
+    }
+
+    @Override
+    public synchronized void contactAdded(Contact contact) {
+        written.add(contact.getContactId());
+        index.contactAdded(contact);
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact before, Contact after) {
+        written.add(after.getContactId());
+        index.contactUpdated(before, after);
+    }
+
+    @Override
+    public synchronized void contactRemoved(Contact contact) {
+        written.add(contact.getContactId());
+        index.contactRemoved(contact);
+    }
+
+    @Override
+    public synchronized void contactsAdded(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            written.add(contact.getContactId());
+        }
+        index.contactsAdded(contacts);
+    }
+
+    @Override
+    public synchronized void contactsRemoved(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            written.add(contact.getContactId());
+        }
+        index.contactsRemoved(contacts);
+    }
+}
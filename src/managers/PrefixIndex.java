@@ -0,0 +1,305 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import models.Contact;
+import utils.SearchKeyUtils;
+
+/**
+ * PrefixIndex class providing type-ahead lookup of contacts.
+ * The first name, last name, nickname and email of every contact are stored
+ * as terms in a sorted array, with a parallel array holding the sorted IDs
+ * of the contacts behind each term. All terms starting with a prefix form
+ * one consecutive run of the array, so a lookup binary-searches the start
+ * of the run and reads terms from there, stopping as soon as enough
+ * contacts have been found. Its cost depends on the prefix length and the
+ * number of results rather than on the number of contacts, and memory is
+ * one String and one int[] per distinct term.
+ *
+ * Terms that are not in the arrays yet are kept in a small sorted map and
+ * merged into the arrays once the map holds a fixed share of the terms, so
+ * adding contacts one at a time costs amortized constant work per term.
+ *
+ * Terms are stored as {@link SearchKeyUtils#searchKey(String)}, so lookups
+ * ignore case and accents.
+ *
+ * A contact ID is added to or removed from a term at most once, so
+ * repeated writes of the same contact leave the index as it is; this lets
+ * an {@link IndexBuilder} fill it while contacts are being written.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class PrefixIndex implements ContactChangeListener {
+
+    /** Pending terms always allowed before merging into the arrays */
+    private static final int MIN_PENDING_TERMS = 1024;
+
+    /** Pending terms allowed per term already in the arrays */
+    private static final int PENDING_TERM_DIVISOR = 8;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final long builtAt;
+
+    // Sorted terms and the sorted contact IDs of each; a term whose last
+    // contact was removed keeps an empty ID array until the next merge
+    private String[] terms = new String[0];
+    private int[][] postings = new int[0][];
+
+    // Terms not in the arrays yet
+    private final TreeMap<String, int[]> pending = new TreeMap<>();
+
+    /**
+     * Constructor for PrefixIndex.
+     * Starts empty; contacts are added through {@link #contactAdded(Contact)}.
+     */
+    public PrefixIndex() {
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether the index was built longer ago than the given age and
+     * should be rebuilt to pick up writes made by other clients.
+     *
+     * @param maxAgeMs The maximum age in milliseconds
+     * @return true if the index is older than maxAgeMs
+     */
+    public boolean isOlderThan(long maxAgeMs) {
+        return System.currentTimeMillis() - builtAt > maxAgeMs;
+    }
+
+    /**
+     * Finds contacts with a first name, last name, nickname or email starting
+     * with the given prefix.
+     *
+     * @param prefix The typed prefix
+     * @param limit  The maximum number of contact IDs to return
+     * @return Up to limit distinct contact IDs, in alphabetical order of
+     *         the matched term
+     */
+    public synchronized List<Integer> lookup(String prefix, int limit) {
+        Set<Integer> found = new LinkedHashSet<>();
+        String key = SearchKeyUtils.searchKey(prefix);
+
+        // Walk both sorted runs of matching terms in merged order
+        int next = lowerBound(key);
+        Iterator<Map.Entry<String, int[]>> more = pending
+            .tailMap(key, true)
+            .entrySet()
+            .iterator();
+        Map.Entry<String, int[]> nextPending = more.hasNext() ? more.next() : null;
+
+        while (found.size() < limit) {
+            String term = next < terms.length ? terms[next] : null;
+            boolean fromArray = (
+                term != null &&
+                (nextPending == null || term.compareTo(nextPending.getKey()) < 0)
+            );
+            int[] ids;
+            if (fromArray) {
+                ids = postings[next++];
+            } else if (nextPending != null) {
+                term = nextPending.getKey();
+                ids = nextPending.getValue();
+                nextPending = more.hasNext() ? more.next() : null;
+            } else {
+                break;
+            }
+            if (!term.startsWith(key)) {
+                break;
+            }
+
+            for (int i = 0; i < ids.length && found.size() < limit; i++) {
+                found.add(ids[i]);
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    @Override
+    public synchronized void contactAdded(Contact contact) {
+        addTerms(contact);
+        mergePendingIfFull();
+    }
+
+    @Override
+    public synchronized void contactsAdded(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            addTerms(contact);
+        }
+        mergePendingIfFull();
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact before, Contact after) {
+        contactRemoved(before);
+        contactAdded(after);
+    }
+
+    @Override
+    public synchronized void contactRemoved(Contact contact) {
+        for (String term : terms(contact)) {
+            int pos = Arrays.binarySearch(terms, term);
+            if (pos >= 0) {
+                postings[pos] = withoutId(postings[pos], contact.getContactId());
+                continue;
+            }
+            int[] ids = pending.get(term);
+            if (ids != null) {
+                ids = withoutId(ids, contact.getContactId());
+                if (ids.length == 0) {
+                    pending.remove(term);
+                } else {
+                    pending.put(term, ids);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void contactsRemoved(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            contactRemoved(contact);
+        }
+    }
+
+    /**
+     * Adds a contact's ID to each of its terms, without merging.
+     *
+     * @param contact The contact
+     */
+    private void addTerms(Contact contact) {
+        for (String term : terms(contact)) {
+            int pos = Arrays.binarySearch(terms, term);
+            if (pos >= 0) {
+                postings[pos] = withId(postings[pos], contact.getContactId());
+            } else {
+                pending.put(term, withId(pending.getOrDefault(term, NO_IDS), contact.getContactId()));
+            }
+        }
+    }
+
+    /**
+     * Merges the pending terms into the arrays once there are too many.
+     */
+    private void mergePendingIfFull() {
+        if (pending.size() > Math.max(MIN_PENDING_TERMS, terms.length / PENDING_TERM_DIVISOR)) {
+            mergePending();
+        }
+    }
+
+    /**
+     * Finds the first array position whose term is not less than a key.
+     *
+     * @param key The key
+     * @return The position, terms.length if every term is less
+     */
+    private int lowerBound(String key) {
+        int pos = Arrays.binarySearch(terms, key);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Merges the pending terms into the sorted arrays and drops terms that
+     * no longer have any contact.
+     */
+    private void mergePending() {
+        int capacity = terms.length + pending.size();
+        String[] mergedTerms = new String[capacity];
+        int[][] mergedPostings = new int[capacity][];
+        int size = 0;
+
+        int next = 0;
+        Iterator<Map.Entry<String, int[]>> more = pending.entrySet().iterator();
+        Map.Entry<String, int[]> nextPending = more.hasNext() ? more.next() : null;
+        while (next < terms.length || nextPending != null) {
+            if (
+                nextPending == null ||
+                (next < terms.length && terms[next].compareTo(nextPending.getKey()) < 0)
+            ) {
+                if (postings[next].length > 0) {
+                    mergedTerms[size] = terms[next];
+                    mergedPostings[size] = postings[next];
+                    size++;
+                }
+                next++;
+            } else {
+                mergedTerms[size] = nextPending.getKey();
+                mergedPostings[size] = nextPending.getValue();
+                size++;
+                nextPending = more.hasNext() ? more.next() : null;
+            }
+        }
+
+        terms = Arrays.copyOf(mergedTerms, size);
+        postings = Arrays.copyOf(mergedPostings, size);
+        pending.clear();
+    }
+
+    /**
+     * Adds an ID to a sorted ID array.
+     *
+     * @param ids The sorted IDs (left unchanged)
+     * @param id  The ID to add
+     * @return The sorted IDs including id
+     */
+    private static int[] withId(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        pos = -pos - 1;
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        result[pos] = id;
+        System.arraycopy(ids, pos, result, pos + 1, ids.length - pos);
+        return result;
+    }
+
+    /**
+     * Removes an ID from a sorted ID array.
+     *
+     * @param ids The sorted IDs (left unchanged)
+     * @param id  The ID to remove
+     * @return The sorted IDs without id
+     */
+    private static int[] withoutId(int[] ids, int id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        System.arraycopy(ids, pos + 1, result, pos, ids.length - pos - 1);
+        return result;
+    }
+
+    /**
+     * Gets the normalized, non-empty lookup terms of a contact.
+     *
+     * @param contact The contact
+     * @return The terms
+     */
+    private static Set<String> terms(Contact contact) {
+        Set<String> terms = new LinkedHashSet<>();
+        String[] values = {
+            contact.getFirstName(),
+            contact.getLastName(),
+            contact.getNickname(),
+            contact.getEmail(),
+        };
+        for (String value : values) {
+            if (value != null && !value.trim().isEmpty()) {
+                terms.add(SearchKeyUtils.searchKey(value.trim()));
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,497 @@
+package managers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import models.Contact;
+import models.SearchCriteria;
+import utils.SearchKeyUtils;
+
+/**
+ * SearchCriteriaCompiler class turning a SearchCriteria into a
+ * Predicate&lt;Contact&gt;, so that the same search can be evaluated against
+ * contacts in memory (the contact cache, a streamed cursor or any list)
+ * without building SQL. Nested groups and negated groups compile into nested
+ * predicates.
+ *
+ * All per-search work is done once at compile time: the field accessor of
+ * every criterion is resolved, the search value is normalized and LIKE
+ * wildcards are turned into a regular expression. Per contact, text fields
+ * are read through the search keys cached on the contact
+ * ({@link Contact#getSearchKey(int)}), so nothing is normalized per
+ * comparison. The criteria are checked cheapest first and evaluation stops
+ * as soon as the result is known.
+ *
+ * A compiled predicate accepts exactly the rows the SQL built by
+ * SearchCriteria selects. Text fields are compared through the same search
+ * keys that are stored in the utf8mb4_bin *_search columns, so both sides
+ * compare identical strings: LIKE wildcards and escapes work as in the
+ * database, exact and IN matches ignore trailing spaces (utf8mb4_bin pads
+ * with spaces), and empty (NULL) fields never match. birth_date and
+ * contact_id compare as dates and numbers for exact, IN and range matches
+ * and as their SQL text for LIKE matches. Criteria whose result depends on
+ * database-specific conversions (range matches on text fields, values that
+ * are not a plain number or yyyy-mm-dd date) are not compiled; they throw
+ * IllegalArgumentException so that the caller can query the database
+ * instead.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class SearchCriteriaCompiler {
+
+    /** Relative cost of an exact comparison */
+    private static final int COST_EXACT = 1;
+
+    /** Relative cost of a substring search */
+    private static final int COST_PARTIAL = 2;
+
+    /** Relative cost of a prefix match */
+    private static final int COST_PREFIX = 2;
+
+    /** Relative cost of a partial match containing LIKE wildcards */
+    private static final int COST_PATTERN = 3;
+
+    /**
+     * A criterion compiled into a predicate, with its estimated cost and
+     * selectivity used to decide the evaluation order.
+     */
+    private static class CompiledCriterion {
+
+        private final Predicate<Contact> predicate;
+        private final int cost;
+        private final int valueLength;
+
+        CompiledCriterion(Predicate<Contact> predicate, int cost, int valueLength) {
+            this.predicate = predicate;
+            this.cost = cost;
+            this.valueLength = valueLength;
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SearchCriteriaCompiler() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Compiles search criteria into a predicate.
+     *
+     * @param criteria The search criteria
+     * @return Predicate accepting exactly the contacts the search matches;
+     *         without criteria every contact is accepted
+     * @throws IllegalArgumentException If a criterion names an unknown field
+     *                                  or can only be evaluated by the
+     *                                  database
+     */
+    public static Predicate<Contact> compile(SearchCriteria criteria) {
+        if (!criteria.hasCriteria()) {
+            return contact -> true;
+        }
+        return compileGroup(criteria).predicate;
+    }
+
+    /**
+     * Compiles a SearchCriteria and its nested groups.
+     *
+     * @param criteria The search criteria, with at least one criterion
+     * @return The compiled group; its cost is the sum of its members' costs
+     * @throws IllegalArgumentException If a criterion cannot be compiled
+     */
+    private static CompiledCriterion compileGroup(SearchCriteria criteria) {
+        boolean or = criteria.getLogicalOperator().equals("OR");
+
+        List<CompiledCriterion> compiled = new ArrayList<>();
+        for (SearchCriteria.Criterion criterion : criteria.getCriteria()) {
+            compiled.add(compile(criterion));
+        }
+        for (SearchCriteria group : criteria.getGroups()) {
+            // Empty groups are left out of the SQL too
+            if (group.hasCriteria()) {
+                compiled.add(compileGroup(group));
+            }
+        }
+        int cost = 0;
+        for (CompiledCriterion c : compiled) {
+            cost += c.cost;
+        }
+
+        // Cheapest first. Among equal costs, an AND checks the most selective
+        // (longest) value first and an OR the least selective one, so that
+        // evaluation stops as early as possible.
+        Comparator<CompiledCriterion> order = Comparator.comparingInt(c -> c.cost);
+        order = order.thenComparingInt(c -> or ? c.valueLength : -c.valueLength);
+        compiled.sort(order);
+
+        List<Predicate<Contact>> predicates = new ArrayList<>(compiled.size());
+        for (CompiledCriterion c : compiled) {
+            predicates.add(c.predicate);
+        }
+
+        Predicate<Contact> combined;
+        if (predicates.size() == 1) {
+            combined = predicates.get(0);
+        } else if (or) {
+            combined = contact -> {
+                for (Predicate<Contact> predicate : predicates) {
+                    if (predicate.test(contact)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        } else {
+            combined = contact -> {
+                for (Predicate<Contact> predicate : predicates) {
+                    if (!predicate.test(contact)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        if (criteria.isNegated()) {
+            combined = combined.negate();
+        }
+        return new CompiledCriterion(combined, cost, 0);
+    }
+
+    /**
+     * Compiles a single criterion.
+     *
+     * @param criterion The criterion
+     * @return The compiled criterion
+     * @throws IllegalArgumentException If the criterion names an unknown field
+     *                                  or can only be evaluated by the
+     *                                  database
+     */
+    private static CompiledCriterion compile(SearchCriteria.Criterion criterion) {
+        Function<Contact, String> field = fieldAccessor(criterion.getFieldName());
+        String value = searchValue(criterion.getFieldName(), criterion.getValue());
+        if (value == null) {
+            return new CompiledCriterion(contact -> false, COST_EXACT, 0);
+        }
+
+        switch (criterion.getMatchType()) {
+            case BEFORE:
+            case AFTER:
+            case BETWEEN:
+                return compileRange(criterion);
+            case EXACT:
+            case IN:
+                if (orderedAccessor(criterion.getFieldName()) != null) {
+                    return compileOrderedInList(criterion);
+                }
+                if (criterion.getMatchType() == SearchCriteria.MatchType.IN) {
+                    return compileInList(criterion, field);
+                }
+                break;
+            case PREFIX:
+                return compilePrefix(value, field);
+            default:
+                break;
+        }
+
+        if (criterion.getMatchType() == SearchCriteria.MatchType.EXACT) {
+            String key = stripTrailingSpaces(value);
+            Predicate<Contact> predicate = contact -> {
+                String fieldKey = field.apply(contact);
+                return fieldKey != null && stripTrailingSpaces(fieldKey).equals(key);
+            };
+            return new CompiledCriterion(predicate, COST_EXACT, key.length());
+        }
+
+        if (!hasWildcards(value)) {
+            Predicate<Contact> predicate = contact -> {
+                String fieldKey = field.apply(contact);
+                return fieldKey != null && fieldKey.contains(value);
+            };
+            return new CompiledCriterion(predicate, COST_PARTIAL, value.length());
+        }
+
+        Pattern pattern = likePattern(value, false);
+        Predicate<Contact> predicate = contact -> {
+            String fieldKey = field.apply(contact);
+            return fieldKey != null && pattern.matcher(fieldKey).matches();
+        };
+        return new CompiledCriterion(predicate, COST_PATTERN, value.length());
+    }
+
+    /**
+     * Compiles a prefix match, the equivalent of {@code LIKE 'value%'}.
+     *
+     * @param key   The normalized prefix
+     * @param field The field accessor
+     * @return The compiled criterion
+     */
+    private static CompiledCriterion compilePrefix(
+        String key,
+        Function<Contact, String> field
+    ) {
+        if (hasWildcards(key)) {
+            Pattern pattern = likePattern(key, true);
+            Predicate<Contact> predicate = contact -> {
+                String fieldKey = field.apply(contact);
+                return fieldKey != null && pattern.matcher(fieldKey).matches();
+            };
+            return new CompiledCriterion(predicate, COST_PATTERN, key.length());
+        }
+
+        Predicate<Contact> predicate = contact -> {
+            String fieldKey = field.apply(contact);
+            return fieldKey != null && fieldKey.startsWith(key);
+        };
+        return new CompiledCriterion(predicate, COST_PREFIX, key.length());
+    }
+
+    /**
+     * Compiles an IN-list into a hash set lookup of normalized values.
+     *
+     * @param criterion The IN criterion
+     * @param field     The field accessor
+     * @return The compiled criterion
+     */
+    private static CompiledCriterion compileInList(
+        SearchCriteria.Criterion criterion,
+        Function<Contact, String> field
+    ) {
+        Set<String> keys = new HashSet<>();
+        for (String value : criterion.getValues()) {
+            String key = searchValue(criterion.getFieldName(), value);
+            if (key != null) {
+                keys.add(stripTrailingSpaces(key));
+            }
+        }
+        Predicate<Contact> predicate = contact -> {
+            String fieldKey = field.apply(contact);
+            return fieldKey != null && keys.contains(stripTrailingSpaces(fieldKey));
+        };
+        return new CompiledCriterion(predicate, COST_EXACT, 0);
+    }
+
+    /**
+     * Compiles an exact match or IN-list on birth_date or contact_id into a
+     * lookup of numbers, the way the database converts the values.
+     *
+     * @param criterion The EXACT or IN criterion
+     * @return The compiled criterion
+     * @throws IllegalArgumentException If a value cannot be parsed
+     */
+    private static CompiledCriterion compileOrderedInList(
+        SearchCriteria.Criterion criterion
+    ) {
+        String fieldName = criterion.getFieldName().toLowerCase();
+        Function<Contact, Long> field = orderedAccessor(fieldName);
+        Set<Long> keys = new HashSet<>();
+        for (String value : criterion.getValues()) {
+            if (value != null) {
+                keys.add(rangeBound(fieldName, value));
+            }
+        }
+        Predicate<Contact> predicate = contact -> {
+            Long key = field.apply(contact);
+            return key != null && keys.contains(key);
+        };
+        return new CompiledCriterion(predicate, COST_EXACT, 0);
+    }
+
+    /**
+     * Compiles a range criterion on birth_date or contact_id into numeric
+     * comparisons. Bounds are parsed once here.
+     *
+     * @param criterion The BEFORE, AFTER or BETWEEN criterion
+     * @return The compiled criterion
+     * @throws IllegalArgumentException If the field has no numeric order or a
+     *                                  bound cannot be parsed
+     */
+    private static CompiledCriterion compileRange(SearchCriteria.Criterion criterion) {
+        String fieldName = criterion.getFieldName().toLowerCase();
+        Function<Contact, Long> field = orderedAccessor(fieldName);
+        if (field == null) {
+            throw new IllegalArgumentException(
+                "Cannot compare field in memory: " + criterion.getFieldName()
+            );
+        }
+
+        List<String> values = criterion.getValues();
+        long low = rangeBound(fieldName, values.get(0));
+        Predicate<Contact> predicate;
+        switch (criterion.getMatchType()) {
+            case BEFORE:
+                predicate = contact -> {
+                    Long key = field.apply(contact);
+                    return key != null && key < low;
+                };
+                break;
+            case AFTER:
+                predicate = contact -> {
+                    Long key = field.apply(contact);
+                    return key != null && key > low;
+                };
+                break;
+            default:
+                long high = rangeBound(fieldName, values.get(1));
+                predicate = contact -> {
+                    Long key = field.apply(contact);
+                    return key != null && key >= low && key <= high;
+                };
+        }
+        return new CompiledCriterion(predicate, COST_EXACT, 0);
+    }
+
+    /**
+     * Resolves the numeric accessor of a field with a numeric order.
+     *
+     * @param fieldName The field name
+     * @return Function reading birth_date as days since 1970-01-01 or
+     *         contact_id as a number; null for other fields
+     */
+    private static Function<Contact, Long> orderedAccessor(String fieldName) {
+        switch (fieldName.toLowerCase()) {
+            case "birth_date":
+                return contact -> contact.getBirthDate() != null
+                    ? contact.getBirthDate().toLocalDate().toEpochDay()
+                    : null;
+            case "contact_id":
+                return contact -> (long) contact.getContactId();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parses a range bound or a compared value.
+     *
+     * @param fieldName birth_date or contact_id
+     * @param value     The value as text (yyyy-mm-dd for dates)
+     * @return The value as days since 1970-01-01 or as a number
+     * @throws IllegalArgumentException If the value cannot be parsed
+     */
+    private static long rangeBound(String fieldName, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing range bound for " + fieldName);
+        }
+        try {
+            return fieldName.equals("birth_date")
+                ? LocalDate.parse(value.trim()).toEpochDay()
+                : Long.parseLong(value.trim());
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "Invalid value for " + fieldName + ": " + value
+            );
+        }
+    }
+
+    /**
+     * Resolves the accessor of a field, as it appears in SQL conditions.
+     * Text fields are read as their cached search keys, the values stored in
+     * the database's search key columns. Dates are compared in their SQL
+     * text form (yyyy-mm-dd).
+     *
+     * @param fieldName The field name
+     * @return Function reading the field's compared value from a contact
+     * @throws IllegalArgumentException If the field is unknown
+     */
+    private static Function<Contact, String> fieldAccessor(String fieldName) {
+        int searchKey = Contact.searchKeyIndex(fieldName);
+        if (searchKey >= 0) {
+            return contact -> contact.getSearchKey(searchKey);
+        }
+        switch (fieldName.toLowerCase()) {
+            case "contact_id":
+                return contact -> String.valueOf(contact.getContactId());
+            case "birth_date":
+                return contact -> contact.getBirthDate() != null
+                    ? contact.getBirthDate().toString()
+                    : null;
+            default:
+                throw new IllegalArgumentException(
+                    "Cannot search by field: " + fieldName
+                );
+        }
+    }
+
+    /**
+     * Normalizes a search value the way the field is compared: text fields
+     * by {@link SearchKeyUtils#searchKey(String)}, other fields as given.
+     *
+     * @param fieldName The field name
+     * @param value     The search value
+     * @return The value to compare against the field accessor's result
+     */
+    private static String searchValue(String fieldName, String value) {
+        return Contact.searchKeyIndex(fieldName) >= 0
+            ? SearchKeyUtils.searchKey(value)
+            : value;
+    }
+
+    /**
+     * Converts a partial or prefix match value into a regular expression
+     * matching the whole field, like SQL's {@code LIKE '%value%'} or
+     * {@code LIKE 'value%'}: '%' matches any sequence, '_' any single
+     * character and '\' escapes the next character.
+     *
+     * @param key    The normalized search value
+     * @param prefix true to anchor the value at the start of the field
+     * @return The compiled pattern
+     */
+    private static Pattern likePattern(String key, boolean prefix) {
+        StringBuilder regex = new StringBuilder(prefix ? "" : ".*");
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '\\' && i + 1 < key.length()) {
+                literal.append(key.charAt(++i));
+                continue;
+            }
+            if (c != '%' && c != '_') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            regex.append(c == '%' ? ".*" : ".");
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        regex.append(".*");
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * Checks whether a LIKE value contains wildcards or escapes.
+     *
+     * @param key The normalized search value
+     * @return true if the value contains '%', '_' or '\'
+     */
+    private static boolean hasWildcards(String key) {
+        return key.indexOf('%') >= 0 || key.indexOf('_') >= 0 || key.indexOf('\\') >= 0;
+    }
+
+    /**
+     * Removes trailing spaces, which exact matches in the database ignore.
+     *
+     * @param value The value
+     * @return The value without trailing spaces
+     */
+    private static String stripTrailingSpaces(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+}
@@ -0,0 +1,172 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import models.Contact;
+
+/**
+ * SearchResultCache class remembering the results of recent searches.
+ * Each entry maps the canonical key of a search (see
+ * {@link models.SearchCriteria#getCanonicalKey()}) to the IDs of the
+ * matching contacts in result order; the contacts themselves are resolved
+ * through the contact cache. The least recently used search is evicted once
+ * the capacity is reached, and entries expire after a short time so that
+ * writes made by other clients become visible.
+ *
+ * Any contact write made through the owning ContactManager can change any
+ * search result, so every write empties the cache. A generation counter
+ * guards against storing a result that was computed while a write happened.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class SearchResultCache implements ContactChangeListener {
+
+    private final int capacity;
+    private final long timeToLiveMs;
+    private final LinkedHashMap<String, Entry> entries;
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    /**
+     * The matching contact IDs of one search together with the time they
+     * were stored.
+     */
+    private static class Entry {
+
+        private final int[] contactIds;
+        private final long storedAt;
+
+        Entry(int[] contactIds, long storedAt) {
+            this.contactIds = contactIds;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Constructor for SearchResultCache.
+     *
+     * @param capacity     The maximum number of searches kept
+     * @param timeToLiveMs How long a search result may be served
+     */
+    public SearchResultCache(int capacity, long timeToLiveMs) {
+        this.capacity = capacity;
+        this.timeToLiveMs = timeToLiveMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > SearchResultCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the result of a search.
+     *
+     * @param key The canonical search key
+     * @return The matching contact IDs in result order, or null on a miss
+     */
+    public synchronized List<Integer> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || System.currentTimeMillis() - entry.storedAt > timeToLiveMs) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+
+        List<Integer> contactIds = new ArrayList<>(entry.contactIds.length);
+        for (int contactId : entry.contactIds) {
+            contactIds.add(contactId);
+        }
+        return contactIds;
+    }
+
+    /**
+     * Gets the current generation, to be passed to
+     * {@link #put(String, List, long)} after the search has run.
+     *
+     * @return The number of invalidations so far
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores the result of a search, unless a contact was written since the
+     * search started.
+     *
+     * @param key        The canonical search key
+     * @param contacts   The matching contacts in result order
+     * @param generation The generation read before the search started
+     */
+    public synchronized void put(String key, List<Contact> contacts, long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        int[] contactIds = new int[contacts.size()];
+        for (int i = 0; i < contactIds.length; i++) {
+            contactIds[i] = contacts.get(i).getContactId();
+        }
+        entries.put(key, new Entry(contactIds, System.currentTimeMillis()));
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        generation++;
+        invalidations++;
+    }
+
+    /**
+     * Gets the cache metrics.
+     *
+     * @return Map with size, capacity, hits, misses, hitRatio and invalidations
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("size", entries.size());
+        metrics.put("capacity", capacity);
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        long lookups = hits + misses;
+        metrics.put("hitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        metrics.put("invalidations", invalidations);
+        return metrics;
+    }
+
+    @Override
+    public void contactAdded(Contact contact) {
+        clear();
+    }
+
+    @Override
+    public void contactUpdated(Contact before, Contact after) {
+        clear();
+    }
+
+    @Override
+    public void contactRemoved(Contact contact) {
+        clear();
+    }
+
+    @Override
+    public void contactsAdded(List<Contact> contacts) {
+        clear();
+    }
+
+    @Override
+    public void contactsRemoved(List<Contact> contacts) {
+        clear();
+    }
+}
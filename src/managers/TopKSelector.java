@@ -0,0 +1,109 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * TopKSelector class keeping the first K items of a sequence in sort order
+ * without sorting the whole sequence. It holds a bounded heap whose head is
+ * the worst item kept so far; every new item is compared against that head
+ * only, so selecting K of N items costs O(N log K) time and O(K) memory.
+ * Items can be offered one by one, which makes it usable directly as the
+ * consumer of a streaming query.
+ *
+ * Items that compare equal keep their arrival order.
+ *
+ * @param <T> The item type
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class TopKSelector<T> implements Consumer<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<Ranked<T>> heap;
+    private long arrivals;
+
+    /**
+     * An item together with its arrival number, used to break ties.
+     *
+     * @param <T> The item type
+     */
+    private static class Ranked<T> {
+
+        private final T item;
+        private final long arrival;
+
+        Ranked(T item, long arrival) {
+            this.item = item;
+            this.arrival = arrival;
+        }
+    }
+
+    /**
+     * Constructor for TopKSelector.
+     *
+     * @param k     The number of items to keep
+     * @param order The sort order; the first K items in this order are kept
+     */
+    public TopKSelector(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.order = order;
+        // Reversed, so that the head is the item that would be dropped next
+        this.heap = new PriorityQueue<>(Math.max(1, k), (a, b) -> compare(b, a));
+    }
+
+    /**
+     * Offers an item; it is kept only if it belongs to the first K so far.
+     *
+     * @param item The item
+     */
+    public void offer(T item) {
+        Ranked<T> ranked = new Ranked<>(item, arrivals++);
+        if (heap.size() < k) {
+            heap.add(ranked);
+        } else if (k > 0 && compare(ranked, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(ranked);
+        }
+    }
+
+    @Override
+    public void accept(T item) {
+        offer(item);
+    }
+
+    /**
+     * Gets the selected items.
+     *
+     * @return Up to K items in sort order
+     */
+    public List<T> result() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(this::compare);
+
+        List<T> items = new ArrayList<>(ranked.size());
+        for (Ranked<T> r : ranked) {
+            items.add(r.item);
+        }
+        return items;
+    }
+
+    /**
+     * Compares two ranked items by the sort order, then by arrival.
+     *
+     * @param a The first item
+     * @param b The second item
+     * @return Negative if a comes first, positive if b comes first
+     */
+    private int compare(Ranked<T> a, Ranked<T> b) {
+        int comparison = order.compare(a.item, b.item);
+        return comparison != 0 ? comparison : Long.compare(a.arrival, b.arrival);
+    }
+}
@@ -0,0 +1,279 @@
+package managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import models.Contact;
+import utils.SearchKeyUtils;
+
+/**
+ * TrigramIndex class answering substring searches without a table scan.
+ * For every searchable field it maps each three-character sequence
+ * (trigram) of the normalized value to the sorted list of contact IDs
+ * containing it. A substring query is split into its trigrams and the
+ * posting lists are intersected, starting with the shortest, which yields a
+ * small candidate set instead of touching every row. The candidates are a
+ * superset of the matches; the caller verifies them with the original LIKE
+ * condition.
+ *
+ * Values are indexed by their {@link SearchKeyUtils#searchKey(String)},
+ * which is case-insensitive and ignores accents. These are the keys cached
+ * on each contact and stored in the contacts table's search key columns.
+ *
+ * Updates are idempotent: adding a contact that is already indexed or
+ * removing one that is not leaves the index unchanged, so it can be filled
+ * by an {@link IndexBuilder} while writes go on.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class TrigramIndex implements ContactChangeListener {
+
+    /** Shortest query that can be answered from the index */
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private static final String[] INDEXED_FIELDS = {
+        "first_name",
+        "middle_name",
+        "last_name",
+        "nickname",
+        "phone_primary",
+        "phone_secondary",
+        "email",
+        "linkedin_url",
+    };
+
+    private final long builtAt;
+    private final BitSet indexedIds = new BitSet();
+    private int contactCount;
+    private final Map<String, Map<Long, PostingList>> postings = new HashMap<>();
+
+    /**
+     * A sorted, growable array of contact IDs.
+     * New contacts get increasing IDs, so adds are almost always appends.
+     */
+    private static class PostingList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    /**
+     * Constructor for TrigramIndex.
+     * Starts empty; contacts are added through {@link #contactAdded(Contact)}.
+     */
+    public TrigramIndex() {
+        this.builtAt = System.currentTimeMillis();
+        for (String field : INDEXED_FIELDS) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Checks whether the index was built longer ago than the given age and
+     * should be rebuilt to pick up writes made by other clients.
+     *
+     * @param maxAgeMs The maximum age in milliseconds
+     * @return true if the index is older than maxAgeMs
+     */
+    public boolean isOlderThan(long maxAgeMs) {
+        return System.currentTimeMillis() - builtAt > maxAgeMs;
+    }
+
+    /**
+     * Gets the number of contacts in the index.
+     *
+     * @return The number of indexed contacts
+     */
+    public synchronized int getContactCount() {
+        return contactCount;
+    }
+
+    /**
+     * Checks whether a partial search can be answered from the index.
+     * The field must be indexed, the normalized value at least
+     * {@link #MIN_QUERY_LENGTH} characters long, and the value must not
+     * contain LIKE wildcards or the LIKE escape character '\', which the
+     * index cannot interpret.
+     *
+     * @param fieldName The field name
+     * @param value     The substring to search for
+     * @return true if {@link #findCandidates(String, String)} may be used
+     */
+    public static boolean canSearch(String fieldName, String value) {
+        return (
+            value != null &&
+            Arrays.asList(INDEXED_FIELDS).contains(fieldName) &&
+            value.indexOf('%') < 0 &&
+            value.indexOf('_') < 0 &&
+            value.indexOf('\\') < 0 &&
+            SearchKeyUtils.searchKey(value).length() >= MIN_QUERY_LENGTH
+        );
+    }
+
+    /**
+     * Finds the contacts whose field may contain the given substring.
+     *
+     * @param fieldName The field name (see {@link #canSearch(String, String)})
+     * @param value     The substring to search for
+     * @return Sorted list of candidate contact IDs, a superset of the matches
+     */
+    public synchronized List<Integer> findCandidates(String fieldName, String value) {
+        Map<Long, PostingList> fieldPostings = postings.get(fieldName);
+        List<Integer> candidates = new ArrayList<>();
+        if (fieldPostings == null) {
+            return candidates;
+        }
+
+        List<PostingList> lists = new ArrayList<>();
+        for (long trigram : trigrams(SearchKeyUtils.searchKey(value))) {
+            PostingList list = fieldPostings.get(trigram);
+            if (list == null) {
+                return candidates; // Some trigram occurs nowhere: no match
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return candidates;
+        }
+
+        // Walk the shortest list and probe the others with binary search
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        PostingList shortest = lists.get(0);
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public synchronized void contactAdded(Contact contact) {
+        if (!indexedIds.get(contact.getContactId())) {
+            indexedIds.set(contact.getContactId());
+            contactCount++;
+        }
+        for (String field : INDEXED_FIELDS) {
+            String key = fieldKey(contact, field);
+            if (key == null) {
+                continue;
+            }
+            Map<Long, PostingList> fieldPostings = postings.get(field);
+            for (long trigram : trigrams(key)) {
+                fieldPostings
+                    .computeIfAbsent(trigram, t -> new PostingList())
+                    .add(contact.getContactId());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void contactUpdated(Contact before, Contact after) {
+        contactRemoved(before);
+        contactAdded(after);
+    }
+
+    @Override
+    public synchronized void contactRemoved(Contact contact) {
+        if (indexedIds.get(contact.getContactId())) {
+            indexedIds.clear(contact.getContactId());
+            contactCount--;
+        }
+        for (String field : INDEXED_FIELDS) {
+            String key = fieldKey(contact, field);
+            if (key == null) {
+                continue;
+            }
+            Map<Long, PostingList> fieldPostings = postings.get(field);
+            for (long trigram : trigrams(key)) {
+                PostingList list = fieldPostings.get(trigram);
+                if (list != null) {
+                    list.remove(contact.getContactId());
+                    if (list.size == 0) {
+                        fieldPostings.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void contactsAdded(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            contactAdded(contact);
+        }
+    }
+
+    @Override
+    public synchronized void contactsRemoved(List<Contact> contacts) {
+        for (Contact contact : contacts) {
+            contactRemoved(contact);
+        }
+    }
+
+    /**
+     * Gets the distinct trigrams of a normalized value, each packed into a long.
+     *
+     * @param normalized The search key
+     * @return Set of packed trigrams (empty if the value is too short)
+     */
+    private static Set<Long> trigrams(String normalized) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + MIN_QUERY_LENGTH <= normalized.length(); i++) {
+            result.add(
+                ((long) normalized.charAt(i) << 32) |
+                ((long) normalized.charAt(i + 1) << 16) |
+                normalized.charAt(i + 2)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Gets the cached search key of an indexed field.
+     *
+     * @param contact   The contact
+     * @param fieldName The field name
+     * @return The search key, or null if the field is empty
+     */
+    private static String fieldKey(Contact contact, String fieldName) {
+        return contact.getSearchKey(Contact.searchKeyIndex(fieldName));
+    }
+}
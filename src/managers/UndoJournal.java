@@ -0,0 +1,799 @@
+package managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import models.Contact;
+import models.User;
+
+/**
+ * UndoJournal class persisting a user's undo history, so that operations
+ * can still be undone after logging out or a crash.
+ *
+ * The journal is an append-only log of compact binary records: PUSH (an
+ * operation with its type, affected ID, description and snapshot), POP (the
+ * most recent operation was undone) and CLEAR. Replaying the log rebuilds
+ * the undo stack. Records are written into memory-mapped segment files of
+ * {@link #SEGMENT_SIZE} bytes, or larger when a checkpoint needs it. Every
+ * record is framed by its length and a CRC32 checksum, so a record torn by
+ * a crash is recognized and replay stops there.
+ *
+ * Callers only enqueue records; a background thread encodes them into a
+ * reused buffer, copies them into the mapped segment and forces the
+ * segment to disk at most every {@link #FORCE_INTERVAL_MS} ms, covering
+ * every record written in between with a single force. A full segment is
+ * replaced by a new one that starts with a checkpoint (CLEAR followed by
+ * the current stack), so only the newest {@link #MAX_SEGMENTS} segments
+ * are ever kept.
+ *
+ * The journal holds contact data, so its directories and segments are
+ * created readable by the owner only where the file system supports POSIX
+ * permissions. Password hashes are never written: a deleted user's snapshot
+ * is journaled without it, so restoring the user works only in the session
+ * that deleted it.
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class UndoJournal {
+
+    /** Size of one memory-mapped segment file */
+    public static final int SEGMENT_SIZE = 1 << 20;
+
+    /** Number of segment files kept; older ones are deleted */
+    public static final int MAX_SEGMENTS = 2;
+
+    /** Longest time written records wait before being forced to disk */
+    public static final long FORCE_INTERVAL_MS = 200;
+
+    private static final String SEGMENT_PREFIX = "undo-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /** Length and checksum in front of every record */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte PUSH = 1;
+    private static final byte POP = 2;
+    private static final byte CLEAR = 3;
+
+    private static final byte NO_SNAPSHOT = 0;
+    private static final byte CONTACT_SNAPSHOT = 1;
+    private static final byte USER_SNAPSHOT = 2;
+    private static final byte CONTACT_LIST_SNAPSHOT = 3;
+    private static final byte CONTACT_DELTA_SNAPSHOT = 4;
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private static final String OWNER_ONLY_DIRECTORY = "rwx------";
+    private static final String OWNER_ONLY_FILE = "rw-------";
+
+    /** Queued in place of a record to stop the writer */
+    private static final Record STOP = new Record(CLEAR, null);
+
+    private final Path directory;
+    private final BlockingQueue<Record> queue =
+        new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Deque<UndoManager.UndoOperation> stack = new ArrayDeque<>();
+    private final List<UndoManager.UndoOperation> recovered;
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    private volatile int capacity;
+    private ByteBuffer scratch = ByteBuffer.allocate(16 * 1024);
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentNumber;
+
+    /**
+     * A queued journal record.
+     */
+    private static class Record {
+
+        private final byte kind;
+        private final UndoManager.UndoOperation operation;
+
+        Record(byte kind, UndoManager.UndoOperation operation) {
+            this.kind = kind;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Private constructor; use {@link #open(Path, int)}.
+     *
+     * @param directory The journal directory
+     * @param capacity  The number of operations kept on the undo stack
+     * @throws IOException If the segments cannot be read or created
+     */
+    private UndoJournal(Path directory, int capacity) throws IOException {
+        this.directory = directory;
+        this.capacity = capacity;
+
+        List<Path> segments = listSegments();
+        for (Path file : segments) {
+            replay(file);
+        }
+        this.recovered = new ArrayList<>(stack);
+
+        long last = segments.isEmpty()
+            ? 0
+            : segmentNumber(segments.get(segments.size() - 1));
+        startSegment(last + 1);
+
+        // The new segment's checkpoint holds the whole stack. Older segments
+        // are deleted right away, as ones written by earlier versions may
+        // still contain password hashes.
+        for (Path file : segments) {
+            file.toFile().delete();
+        }
+
+        this.writer = new Thread(this::writeLoop, "undo-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the journal in a directory, replaying the segments found there.
+     *
+     * @param directory The journal directory (created if missing)
+     * @param capacity  The number of operations kept on the undo stack
+     * @return The journal
+     * @throws IOException If the directory or a segment cannot be accessed
+     */
+    public static UndoJournal open(Path directory, int capacity)
+        throws IOException {
+        if (isPosix(directory)) {
+            Files.createDirectories(
+                directory,
+                PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString(OWNER_ONLY_DIRECTORY)
+                )
+            );
+            // Also tightens a directory created by an earlier version
+            Files.setPosixFilePermissions(
+                directory,
+                PosixFilePermissions.fromString(OWNER_ONLY_DIRECTORY)
+            );
+        } else {
+            Files.createDirectories(directory);
+        }
+        return new UndoJournal(directory, capacity);
+    }
+
+    /**
+     * Checks whether the file system of a path supports POSIX permissions.
+     *
+     * @param path The path
+     * @return true if POSIX permissions can be set
+     */
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Gets the undo stack as it was recovered when the journal was opened.
+     *
+     * @return The operations, from the oldest to the most recent
+     */
+    public List<UndoManager.UndoOperation> getRecoveredOperations() {
+        return new ArrayList<>(recovered);
+    }
+
+    /**
+     * Records that an operation was pushed onto the undo stack.
+     *
+     * @param operation The operation
+     */
+    public void recordPush(UndoManager.UndoOperation operation) {
+        enqueue(new Record(PUSH, operation));
+    }
+
+    /**
+     * Records that the most recent operation was taken off the undo stack.
+     */
+    public void recordPop() {
+        enqueue(new Record(POP, null));
+    }
+
+    /**
+     * Records that the undo stack was cleared.
+     */
+    public void recordClear() {
+        enqueue(new Record(CLEAR, null));
+    }
+
+    /**
+     * Changes the number of operations kept on the undo stack.
+     *
+     * @param capacity The new capacity
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Writes all queued records, forces them to disk and stops the writer.
+     */
+    public void close() {
+        enqueue(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a record for the writer. Blocks only if the writer has fallen
+     * {@link #QUEUE_CAPACITY} records behind.
+     *
+     * @param record The record
+     */
+    private void enqueue(Record record) {
+        if (!writer.isAlive()) {
+            return;
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Body of the writer thread: writes records as they arrive and forces
+     * the segment once per {@link #FORCE_INTERVAL_MS}.
+     */
+    private void writeLoop() {
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                long untilForce = lastForce + FORCE_INTERVAL_MS - now;
+                long wait = dirty ? Math.max(0, untilForce) : FORCE_INTERVAL_MS;
+                Record record = queue.poll(wait, TimeUnit.MILLISECONDS);
+                while (record != null) {
+                    if (record == STOP) {
+                        segment.force();
+                        channel.close();
+                        return;
+                    }
+                    write(record);
+                    dirty = true;
+                    record = queue.poll();
+                }
+
+                long sinceForce = System.currentTimeMillis() - lastForce;
+                if (dirty && sinceForce >= FORCE_INTERVAL_MS) {
+                    segment.force();
+                    lastForce = System.currentTimeMillis();
+                    dirty = false;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println(
+                "Error writing undo journal, undo history is no longer saved: " +
+                e
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends a record to the current segment, starting a new segment if it
+     * does not fit.
+     *
+     * @param record The record
+     * @throws IOException If a new segment cannot be created
+     */
+    private void write(Record record) throws IOException {
+        apply(stack, record.kind, record.operation);
+        encode(record.kind, record.operation);
+        if (segment.remaining() < RECORD_HEADER_SIZE + scratch.remaining()) {
+            // The new segment's checkpoint already contains this record
+            startSegment(segmentNumber + 1);
+            return;
+        }
+        append();
+    }
+
+    /**
+     * Creates a new segment, writes a checkpoint of the current stack into
+     * it and deletes the segments that are no longer needed.
+     *
+     * A segment is normally {@link #SEGMENT_SIZE} bytes. If the checkpoint
+     * is larger (e.g. the stack holds big batch operations), the segment is
+     * made twice as large as the checkpoint, so that it always fits and
+     * further records can still be appended before the next rotation.
+     *
+     * @param number The segment number
+     * @throws IOException If the segment cannot be created
+     */
+    private void startSegment(long number) throws IOException {
+        if (channel != null) {
+            segment.force();
+            channel.close();
+        }
+
+        long checkpointSize = 0;
+        encode(CLEAR, null);
+        checkpointSize += RECORD_HEADER_SIZE + scratch.limit();
+        for (UndoManager.UndoOperation operation : stack) {
+            encode(PUSH, operation);
+            checkpointSize += RECORD_HEADER_SIZE + scratch.limit();
+        }
+        long size = Math.max(SEGMENT_SIZE, 2 * checkpointSize);
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(
+                "Undo history too large to journal: " + checkpointSize + " bytes"
+            );
+        }
+
+        segmentNumber = number;
+        Path file = directory.resolve(segmentName(number));
+        Set<StandardOpenOption> options = EnumSet.of(
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        FileAttribute<?>[] attributes = isPosix(file)
+            ? new FileAttribute<?>[] {
+                PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString(OWNER_ONLY_FILE)
+                ),
+            }
+            : new FileAttribute<?>[0];
+        channel = FileChannel.open(file, options, attributes);
+        try {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            encode(CLEAR, null);
+            append();
+            for (UndoManager.UndoOperation operation : stack) {
+                encode(PUSH, operation);
+                append();
+            }
+            segment.force();
+        } catch (IOException | RuntimeException e) {
+            // A partial checkpoint would replay as a truncated stack
+            channel.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        List<Path> segments = listSegments();
+        for (int i = 0; i < segments.size() - MAX_SEGMENTS; i++) {
+            // A mapped file may not be deletable yet on some platforms;
+            // it is then deleted on a later rotation
+            segments.get(i).toFile().delete();
+        }
+    }
+
+    /**
+     * Copies the encoded record from the scratch buffer into the segment,
+     * behind its length and checksum.
+     */
+    private void append() {
+        crc.reset();
+        crc.update(scratch.array(), 0, scratch.limit());
+        segment.putInt(scratch.limit());
+        segment.putInt((int) crc.getValue());
+        segment.put(scratch.array(), 0, scratch.limit());
+    }
+
+    /**
+     * Applies a record to a stack, bounded by the capacity.
+     *
+     * @param target    The stack, most recent operation last
+     * @param kind      The record kind
+     * @param operation The operation of a PUSH record
+     */
+    private void apply(
+        Deque<UndoManager.UndoOperation> target,
+        byte kind,
+        UndoManager.UndoOperation operation
+    ) {
+        if (kind == PUSH) {
+            target.addLast(operation);
+            while (target.size() > capacity) {
+                target.removeFirst();
+            }
+        } else if (kind == POP) {
+            target.pollLast();
+        } else {
+            target.clear();
+        }
+    }
+
+    /**
+     * Replays the records of a segment onto the stack, stopping at the end
+     * of the written data or at the first damaged record.
+     *
+     * @param file The segment file
+     * @throws IOException If the segment cannot be read
+     */
+    private void replay(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (data.remaining() >= RECORD_HEADER_SIZE) {
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > data.remaining()) {
+                return;
+            }
+            crc.reset();
+            crc.update(data.array(), data.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+
+            ByteBuffer body = ByteBuffer.wrap(data.array(), data.position(), length);
+            body = body.slice();
+            data.position(data.position() + length);
+            try {
+                byte kind = body.get();
+                apply(stack, kind, kind == PUSH ? decodeOperation(body) : null);
+            } catch (
+                BufferUnderflowException |
+                IndexOutOfBoundsException |
+                IllegalArgumentException e
+            ) {
+                return; // Written by an incompatible version
+            }
+        }
+    }
+
+    /**
+     * Encodes a record body into the scratch buffer, growing it if needed.
+     * The buffer is left flipped, ready to be copied.
+     *
+     * @param kind      The record kind
+     * @param operation The operation of a PUSH record
+     */
+    private void encode(byte kind, UndoManager.UndoOperation operation) {
+        while (true) {
+            scratch.clear();
+            try {
+                scratch.put(kind);
+                if (kind == PUSH) {
+                    encodeOperation(operation);
+                }
+                scratch.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Encodes an operation with its snapshot.
+     *
+     * @param operation The operation
+     */
+    private void encodeOperation(UndoManager.UndoOperation operation) {
+        scratch.put((byte) operation.getType().ordinal());
+        scratch.putInt(operation.getAffectedId());
+        putString(operation.getDescription());
+
+        Contact contact = operation.getContactSnapshot();
+        List<Contact> contacts = operation.getContactSnapshots();
+        ContactDelta delta = operation.getContactDelta();
+        User user = operation.getUserSnapshot();
+        if (delta != null) {
+            scratch.put(CONTACT_DELTA_SNAPSHOT);
+            scratch.putInt(delta.getContactId());
+            scratch.putInt(delta.getChangedFields());
+            for (int i = 0; i < ContactDelta.FIELD_COUNT; i++) {
+                int field = 1 << i;
+                if (!delta.contains(field)) {
+                    continue;
+                }
+                if (field == ContactDelta.BIRTH_DATE) {
+                    putTime((Date) delta.getValue(field));
+                } else {
+                    putString((String) delta.getValue(field));
+                }
+            }
+        } else if (contact != null) {
+            scratch.put(CONTACT_SNAPSHOT);
+            putContact(contact);
+        } else if (contacts != null) {
+            scratch.put(CONTACT_LIST_SNAPSHOT);
+            scratch.putInt(contacts.size());
+            for (Contact c : contacts) {
+                putContact(c);
+            }
+        } else if (user != null) {
+            scratch.put(USER_SNAPSHOT);
+            scratch.putInt(user.getUserId());
+            putString(user.getUsername());
+            putString(null); // Password hashes stay in memory, see class comment
+            putString(user.getName());
+            putString(user.getSurname());
+            putString(user.getRole());
+            putTime(user.getCreatedAt());
+        } else {
+            scratch.put(NO_SNAPSHOT);
+        }
+    }
+
+    /**
+     * Encodes a contact snapshot.
+     *
+     * @param contact The contact
+     */
+    private void putContact(Contact contact) {
+        scratch.putInt(contact.getContactId());
+        putString(contact.getFirstName());
+        putString(contact.getMiddleName());
+        putString(contact.getLastName());
+        putString(contact.getNickname());
+        putString(contact.getPhonePrimary());
+        putString(contact.getPhoneSecondary());
+        putString(contact.getEmail());
+        putString(contact.getLinkedinUrl());
+        putTime(contact.getBirthDate());
+        putTime(contact.getCreatedAt());
+        putTime(contact.getUpdatedAt());
+    }
+
+    /**
+     * Decodes an operation written by {@link #encodeOperation}.
+     *
+     * @param body The record body, positioned after the kind
+     * @return The operation
+     */
+    private static UndoManager.UndoOperation decodeOperation(ByteBuffer body) {
+        UndoManager.OperationType type =
+            UndoManager.OperationType.values()[body.get()];
+        int affectedId = body.getInt();
+        String description = getString(body);
+
+        byte snapshot = body.get();
+        if (snapshot == CONTACT_SNAPSHOT) {
+            return new UndoManager.UndoOperation(
+                type,
+                getContact(body),
+                affectedId,
+                description
+            );
+        }
+        if (snapshot == CONTACT_DELTA_SNAPSHOT) {
+            int contactId = body.getInt();
+            int changedFields = body.getInt();
+            Object[] values = new Object[Integer.bitCount(changedFields)];
+            int index = 0;
+            for (int i = 0; i < ContactDelta.FIELD_COUNT; i++) {
+                int field = 1 << i;
+                if ((changedFields & field) == 0) {
+                    continue;
+                }
+                if (field == ContactDelta.BIRTH_DATE) {
+                    Long birthDate = getTime(body);
+                    values[index++] = birthDate == null ? null : new Date(birthDate);
+                } else {
+                    values[index++] = getString(body);
+                }
+            }
+            ContactDelta delta = new ContactDelta(contactId, changedFields, values);
+            return new UndoManager.UndoOperation(type, delta, description);
+        }
+        if (snapshot == CONTACT_LIST_SNAPSHOT) {
+            int count = body.getInt();
+            List<Contact> contacts = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                contacts.add(getContact(body));
+            }
+            return new UndoManager.UndoOperation(type, contacts, description);
+        }
+        if (snapshot == USER_SNAPSHOT) {
+            int userId = body.getInt();
+            String username = getString(body);
+            getString(body); // Password hash, only written by earlier versions
+            User user = new User(
+                userId,
+                username,
+                null,
+                getString(body),
+                getString(body),
+                getString(body),
+                null
+            );
+            Long createdAt = getTime(body);
+            if (createdAt != null) {
+                user.setCreatedAt(new Timestamp(createdAt));
+            }
+            return new UndoManager.UndoOperation(type, user, affectedId, description);
+        }
+        return new UndoManager.UndoOperation(
+            type,
+            (Contact) null,
+            affectedId,
+            description
+        );
+    }
+
+    /**
+     * Decodes a contact snapshot written by {@link #putContact(Contact)}.
+     *
+     * @param body The record body
+     * @return The contact
+     */
+    private static Contact getContact(ByteBuffer body) {
+        Contact contact = new Contact(
+            body.getInt(),
+            getString(body),
+            getString(body),
+            getString(body),
+            getString(body),
+            getString(body),
+            getString(body),
+            getString(body),
+            getString(body),
+            null,
+            null,
+            null
+        );
+        Long birthDate = getTime(body);
+        Long createdAt = getTime(body);
+        Long updatedAt = getTime(body);
+        if (birthDate != null) {
+            contact.setBirthDate(new Date(birthDate));
+        }
+        if (createdAt != null) {
+            contact.setCreatedAt(new Timestamp(createdAt));
+        }
+        if (updatedAt != null) {
+            contact.setUpdatedAt(new Timestamp(updatedAt));
+        }
+        return contact;
+    }
+
+    /**
+     * Writes a string as its UTF-8 byte length (-1 for null) followed by the
+     * bytes, encoding directly into the scratch buffer.
+     *
+     * @param value The string (may be null)
+     */
+    private void putString(String value) {
+        if (value == null) {
+            scratch.putInt(-1);
+            return;
+        }
+        int lengthPosition = scratch.position();
+        scratch.putInt(0);
+        for (int i = 0; i < value.length(); i++) {
+            int c = value.codePointAt(i);
+            if (Character.isSupplementaryCodePoint(c)) {
+                i++;
+            }
+            if (c < 0x80) {
+                scratch.put((byte) c);
+            } else if (c < 0x800) {
+                scratch.put((byte) (0xC0 | (c >> 6)));
+                scratch.put((byte) (0x80 | (c & 0x3F)));
+            } else if (c < 0x10000) {
+                scratch.put((byte) (0xE0 | (c >> 12)));
+                scratch.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                scratch.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                scratch.put((byte) (0xF0 | (c >> 18)));
+                scratch.put((byte) (0x80 | ((c >> 12) & 0x3F)));
+                scratch.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                scratch.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        scratch.putInt(lengthPosition, scratch.position() - lengthPosition - 4);
+    }
+
+    /**
+     * Reads a string written by {@link #putString(String)}.
+     *
+     * @param body The record body
+     * @return The string, or null
+     */
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(
+            body.array(),
+            body.arrayOffset() + body.position(),
+            length,
+            StandardCharsets.UTF_8
+        );
+        body.position(body.position() + length);
+        return value;
+    }
+
+    /**
+     * Writes an optional point in time as a presence flag and epoch millis.
+     *
+     * @param time The date or timestamp (may be null)
+     */
+    private void putTime(java.util.Date time) {
+        scratch.put((byte) (time == null ? 0 : 1));
+        scratch.putLong(time == null ? 0 : time.getTime());
+    }
+
+    /**
+     * Reads an optional point in time written by {@link #putTime}.
+     *
+     * @param body The record body
+     * @return The epoch millis, or null
+     */
+    private static Long getTime(ByteBuffer body) {
+        boolean present = body.get() != 0;
+        long millis = body.getLong();
+        return present ? millis : null;
+    }
+
+    /**
+     * Lists the segment files of the journal directory, oldest first.
+     *
+     * @return The segment files
+     */
+    private List<Path> listSegments() {
+        File[] files = directory.toFile().listFiles(
+            (dir, name) ->
+                name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)
+        );
+        List<Path> segments = new ArrayList<>();
+        if (files == null) {
+            return segments;
+        }
+        Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+        for (File file : files) {
+            segments.add(file.toPath());
+        }
+        return segments;
+    }
+
+    /**
+     * Gets the file name of a segment. Numbers are zero-padded so that
+     * names sort in segment order.
+     *
+     * @param number The segment number
+     * @return The file name
+     */
+    private static String segmentName(long number) {
+        return String.format("%s%012d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Gets the number of a segment from its file name.
+     *
+     * @param file The segment file
+     * @return The segment number
+     */
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.length() - SEGMENT_SUFFIX.length();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), end));
+    }
+}
@@ -1,6 +1,9 @@
 package managers;
 
-import java.util.Stack;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import models.Contact;
 import models.User;
 
@@ -8,15 +11,28 @@ import models.User;
  * UndoManager class providing undo functionality for contact and user
  * operations.
  * Implements the Memento pattern to save and restore previous states.
- * Maintains a history of operations that can be undone.
+ * Maintains a history of operations that can be undone, and a history of
+ * undone operations that can be redone without entering the data again.
+ *
+ * Both histories are fixed-capacity ring buffers: recording, undoing and
+ * evicting the oldest entry are O(1). The depth can be changed at runtime
+ * with {@link #setMaxUndoLevels(int)}. Each session owns its own
+ * UndoManager, so it is not synchronized.
+ *
+ * Optionally, the undo history is persisted in an {@link UndoJournal} (see
+ * {@link #openJournal(Path)}) and restored on the next login.
  *
  * @author CMPE-343 Project Group
  * @version 1.0
  */
 public class UndoManager {
 
-    private Stack<UndoOperation> undoStack;
-    private static final int MAX_UNDO_LEVELS = 10;
+    /** Default number of operations that can be undone */
+    public static final int DEFAULT_UNDO_LEVELS = 10;
+
+    private History undoStack;
+    private History redoStack;
+    private UndoJournal journal;
 
     /**
      * Enum representing the type of operation that can be undone.
@@ -34,6 +50,10 @@ public class UndoManager {
         UPDATE_USER,
         /** Operation type for deleting a user */
         DELETE_USER,
+        /** Operation type for adding many contacts at once */
+        ADD_CONTACTS,
+        /** Operation type for deleting many contacts at once */
+        DELETE_CONTACTS,
     }
 
     /**
@@ -44,6 +64,8 @@ public class UndoManager {
         private OperationType type;
         private Contact contactSnapshot;
         private User userSnapshot;
+        private List<Contact> contactSnapshots;
+        private ContactDelta contactDelta;
         private int affectedId;
         private String description;
 
@@ -85,6 +107,40 @@ public class UndoManager {
             this.description = description;
         }
 
+        /**
+         * Constructor for operations on many contacts at once.
+         *
+         * @param type        ADD_CONTACTS or DELETE_CONTACTS
+         * @param contacts    The snapshots of all affected contacts
+         * @param description A description of the operation
+         */
+        public UndoOperation(
+                OperationType type,
+                List<Contact> contacts,
+                String description) {
+            this.type = type;
+            this.contactSnapshots = contacts;
+            this.affectedId = contacts.size();
+            this.description = description;
+        }
+
+        /**
+         * Constructor for contact updates stored as a field-level diff.
+         *
+         * @param type        The type of operation, UPDATE_CONTACT
+         * @param delta       The changed fields with their previous values
+         * @param description A description of the operation
+         */
+        public UndoOperation(
+                OperationType type,
+                ContactDelta delta,
+                String description) {
+            this.type = type;
+            this.contactDelta = delta;
+            this.affectedId = delta.getContactId();
+            this.description = description;
+        }
+
         /**
          * Gets the operation type.
          *
@@ -103,6 +159,25 @@ public class UndoManager {
             return contactSnapshot;
         }
 
+        /**
+         * Gets the contact snapshots of an operation on many contacts.
+         *
+         * @return The contact snapshots, or null for single operations
+         */
+        public List<Contact> getContactSnapshots() {
+            return contactSnapshots;
+        }
+
+        /**
+         * Gets the field-level diff of a contact update.
+         *
+         * @return The previous values of the changed fields, or null if the
+         *         operation holds a full snapshot
+         */
+        public ContactDelta getContactDelta() {
+            return contactDelta;
+        }
+
         /**
          * Gets the user snapshot.
          *
@@ -115,7 +190,8 @@ public class UndoManager {
         /**
          * Gets the affected ID.
          *
-         * @return The affected ID
+         * @return The affected ID, or the number of contacts for operations
+         *         on many contacts
          */
         public int getAffectedId() {
             return affectedId;
@@ -131,11 +207,178 @@ public class UndoManager {
         }
     }
 
+    /**
+     * Inner class implementing a bounded stack as a ring buffer.
+     * When full, pushing overwrites the oldest entry.
+     */
+    private static class History {
+
+        private UndoOperation[] entries;
+        private int top; // Index of the next free slot
+        private int size;
+
+        History(int capacity) {
+            this.entries = new UndoOperation[capacity];
+        }
+
+        void push(UndoOperation operation) {
+            entries[top] = operation;
+            top = (top + 1) % entries.length;
+            if (size < entries.length) {
+                size++;
+            }
+        }
+
+        UndoOperation peek() {
+            return size == 0 ? null : entries[index(size - 1)];
+        }
+
+        UndoOperation pop() {
+            if (size == 0) {
+                return null;
+            }
+            top = (top - 1 + entries.length) % entries.length;
+            UndoOperation operation = entries[top];
+            entries[top] = null;
+            size--;
+            return operation;
+        }
+
+        /**
+         * Gets the slot of the i-th entry, counting from the oldest.
+         *
+         * @param i The position, 0 being the oldest entry
+         * @return The array index
+         */
+        int index(int i) {
+            return (top - size + i + entries.length) % entries.length;
+        }
+
+        /**
+         * Lists the entries from the oldest to the most recent.
+         *
+         * @return The entries
+         */
+        List<UndoOperation> toList() {
+            List<UndoOperation> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(entries[index(i)]);
+            }
+            return list;
+        }
+
+        /**
+         * Changes the capacity, keeping the most recent entries.
+         *
+         * @param capacity The new capacity
+         */
+        void resize(int capacity) {
+            List<UndoOperation> kept = toList();
+            entries = new UndoOperation[capacity];
+            top = 0;
+            size = 0;
+            for (int i = Math.max(0, kept.size() - capacity); i < kept.size(); i++) {
+                push(kept.get(i));
+            }
+        }
+
+        void clear() {
+            entries = new UndoOperation[entries.length];
+            top = 0;
+            size = 0;
+        }
+    }
+
     /**
      * Constructor for UndoManager.
      */
     public UndoManager() {
-        this.undoStack = new Stack<>();
+        this(DEFAULT_UNDO_LEVELS);
+    }
+
+    /**
+     * Constructor for UndoManager with a custom history depth.
+     *
+     * @param maxUndoLevels The number of operations that can be undone
+     * @throws IllegalArgumentException If maxUndoLevels is less than 1
+     */
+    public UndoManager(int maxUndoLevels) {
+        checkUndoLevels(maxUndoLevels);
+        this.undoStack = new History(maxUndoLevels);
+        this.redoStack = new History(maxUndoLevels);
+    }
+
+    /**
+     * Gets the number of operations that can be undone.
+     *
+     * @return The history depth
+     */
+    public int getMaxUndoLevels() {
+        return undoStack.entries.length;
+    }
+
+    /**
+     * Changes the number of operations that can be undone.
+     * When shrinking, the oldest operations are dropped.
+     *
+     * @param maxUndoLevels The new history depth
+     * @throws IllegalArgumentException If maxUndoLevels is less than 1
+     */
+    public void setMaxUndoLevels(int maxUndoLevels) {
+        checkUndoLevels(maxUndoLevels);
+        undoStack.resize(maxUndoLevels);
+        redoStack.resize(maxUndoLevels);
+        if (journal != null) {
+            journal.setCapacity(maxUndoLevels);
+        }
+    }
+
+    /**
+     * Persists the undo history in a journal directory. Operations found in
+     * the journal from a previous session are restored onto the undo stack,
+     * and every later change to the stack is appended to the journal.
+     *
+     * @param directory The journal directory, one per user
+     * @return true if the journal was opened, false otherwise
+     */
+    public boolean openJournal(Path directory) {
+        closeJournal();
+        try {
+            UndoJournal opened = UndoJournal.open(directory, getMaxUndoLevels());
+            undoStack.clear();
+            for (UndoOperation operation : opened.getRecoveredOperations()) {
+                undoStack.push(operation);
+            }
+            journal = opened;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error opening undo journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the remaining journal records to disk and closes the journal.
+     * The undo history itself stays available in memory.
+     */
+    public void closeJournal() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    /**
+     * Checks that a history depth is valid.
+     *
+     * @param maxUndoLevels The history depth
+     * @throws IllegalArgumentException If maxUndoLevels is less than 1
+     */
+    private static void checkUndoLevels(int maxUndoLevels) {
+        if (maxUndoLevels < 1) {
+            throw new IllegalArgumentException(
+                    "Undo levels must be at least 1: " + maxUndoLevels);
+        }
     }
 
     /**
@@ -154,18 +397,26 @@ public class UndoManager {
     }
 
     /**
-     * Records a contact update operation with the previous state.
+     * Records a contact update operation. Only the fields that changed are
+     * kept, with their previous values; an update that changed nothing is
+     * not recorded.
      *
-     * @param previousState The previous state of the contact
+     * @param previousState The state of the contact before the update
+     * @param newState      The state of the contact after the update
      * @param description   A description of the operation
      */
-    public void recordUpdateContact(Contact previousState, String description) {
-        pushOperation(
-                new UndoOperation(
-                        OperationType.UPDATE_CONTACT,
-                        previousState,
-                        previousState.getContactId(),
-                        description));
+    public void recordUpdateContact(
+            Contact previousState,
+            Contact newState,
+            String description) {
+        ContactDelta delta = ContactDelta.revert(previousState, newState);
+        if (!delta.isEmpty()) {
+            pushOperation(
+                    new UndoOperation(
+                            OperationType.UPDATE_CONTACT,
+                            delta,
+                            description));
+        }
     }
 
     /**
@@ -185,6 +436,44 @@ public class UndoManager {
                         description));
     }
 
+    /**
+     * Records the addition of many contacts as a single operation, undone
+     * with one multi-row delete.
+     *
+     * @param addedContacts The added contacts, with their new IDs
+     * @param description   A description of the operation
+     */
+    public void recordAddContacts(
+            List<Contact> addedContacts,
+            String description) {
+        if (!addedContacts.isEmpty()) {
+            pushOperation(
+                    new UndoOperation(
+                            OperationType.ADD_CONTACTS,
+                            new ArrayList<>(addedContacts),
+                            description));
+        }
+    }
+
+    /**
+     * Records the deletion of many contacts as a single operation, undone
+     * with one batch insert.
+     *
+     * @param deletedContacts The deleted contacts
+     * @param description     A description of the operation
+     */
+    public void recordDeleteContacts(
+            List<Contact> deletedContacts,
+            String description) {
+        if (!deletedContacts.isEmpty()) {
+            pushOperation(
+                    new UndoOperation(
+                            OperationType.DELETE_CONTACTS,
+                            new ArrayList<>(deletedContacts),
+                            description));
+        }
+    }
+
     /**
      * Records a user addition operation.
      *
@@ -217,6 +506,11 @@ public class UndoManager {
 
     /**
      * Records a user deletion operation with the deleted user's data.
+     * The snapshot should be the full row (e.g. from
+     * {@link UserManager#getUserById(int)}), including the password hash,
+     * so that undo can restore the user exactly. The hash is only kept in
+     * memory, never in the journal, so once the session ends the deletion
+     * can no longer be undone.
      *
      * @param deletedUser The deleted user
      * @param description A description of the operation
@@ -231,16 +525,28 @@ public class UndoManager {
     }
 
     /**
-     * Pushes an operation onto the undo stack.
-     * Maintains a maximum stack size by removing oldest operations.
+     * Pushes a new operation onto the undo stack.
+     * When the stack is full, the oldest operation is overwritten. A new
+     * operation makes the undone operations obsolete, so they can no
+     * longer be redone.
      *
      * @param operation The operation to push
      */
     private void pushOperation(UndoOperation operation) {
-        if (undoStack.size() >= MAX_UNDO_LEVELS) {
-            undoStack.remove(0); // Remove oldest operation
-        }
+        pushUndo(operation);
+        redoStack.clear();
+    }
+
+    /**
+     * Pushes an operation onto the undo stack and journals it.
+     *
+     * @param operation The operation to push
+     */
+    private void pushUndo(UndoOperation operation) {
         undoStack.push(operation);
+        if (journal != null) {
+            journal.recordPush(operation);
+        }
     }
 
     /**
@@ -249,9 +555,6 @@ public class UndoManager {
      * @return The last operation, or null if stack is empty
      */
     public UndoOperation peekLastOperation() {
-        if (undoStack.isEmpty()) {
-            return null;
-        }
         return undoStack.peek();
     }
 
@@ -261,10 +564,11 @@ public class UndoManager {
      * @return The last operation, or null if stack is empty
      */
     public UndoOperation popLastOperation() {
-        if (undoStack.isEmpty()) {
-            return null;
+        UndoOperation operation = undoStack.pop();
+        if (operation != null && journal != null) {
+            journal.recordPop();
         }
-        return undoStack.pop();
+        return operation;
     }
 
     /**
@@ -273,7 +577,7 @@ public class UndoManager {
      * @return true if undo stack is not empty, false otherwise
      */
     public boolean canUndo() {
-        return !undoStack.isEmpty();
+        return undoStack.size > 0;
     }
 
     /**
@@ -282,14 +586,37 @@ public class UndoManager {
      * @return The size of the undo stack
      */
     public int getUndoStackSize() {
-        return undoStack.size();
+        return undoStack.size;
     }
 
     /**
-     * Clears all undo operations.
+     * Clears all undo and redo operations.
      */
     public void clearUndoStack() {
         undoStack.clear();
+        redoStack.clear();
+        if (journal != null) {
+            journal.recordClear();
+        }
+    }
+
+    /**
+     * Gets the last undone operation without removing it from the redo stack.
+     *
+     * @return The operation that {@link #redoContactOperation(ContactManager)}
+     *         would redo, or null if there is none
+     */
+    public UndoOperation peekRedoOperation() {
+        return redoStack.peek();
+    }
+
+    /**
+     * Checks if there are undone operations that can be redone.
+     *
+     * @return true if redo stack is not empty, false otherwise
+     */
+    public boolean canRedo() {
+        return redoStack.size > 0;
     }
 
     /**
@@ -306,6 +633,116 @@ public class UndoManager {
             return false;
         }
 
+        UndoOperation inverse = inverseOf(operation, contactManager);
+        if (!applyContactUndo(operation, contactManager)) {
+            return false;
+        }
+        if (inverse != null) {
+            redoStack.push(inverse);
+        }
+        return true;
+    }
+
+    /**
+     * Redoes the most recently undone contact operation and makes it
+     * undoable again.
+     *
+     * @param contactManager The ContactManager to perform the redo
+     * @return The redone operation, or null if there was nothing to redo or
+     *         the redo failed (the operation then stays on the redo stack)
+     */
+    public UndoOperation redoContactOperation(ContactManager contactManager) {
+        UndoOperation inverse = redoStack.peek();
+        if (inverse == null || contactManager == null) {
+            return null;
+        }
+
+        // Redoing an operation is undoing the undo
+        UndoOperation operation = inverseOf(inverse, contactManager);
+        if (!applyContactUndo(inverse, contactManager)) {
+            return null;
+        }
+        redoStack.pop();
+        if (operation != null) {
+            pushUndo(operation);
+        }
+        return inverse;
+    }
+
+    /**
+     * Builds the operation that reverts undoing the given operation, from
+     * the contact's current state.
+     * Undoing an add deletes the contact, so its inverse is a delete that
+     * holds the contact; undoing a delete re-adds the contact, so its
+     * inverse is an add; undoing an update restores the previous state, so
+     * its inverse is an update that holds the current state (of the changed
+     * fields only, for operations stored as a diff). The same holds
+     * for adds and deletes of many contacts.
+     *
+     * @param operation      The operation about to be undone
+     * @param contactManager The ContactManager to read the current state from
+     * @return The inverse operation, or null if the contact cannot be read
+     */
+    private UndoOperation inverseOf(
+            UndoOperation operation,
+            ContactManager contactManager) {
+        switch (operation.getType()) {
+            case ADD_CONTACT:
+            case UPDATE_CONTACT:
+                Contact current = contactManager.getContactById(
+                        operation.getAffectedId());
+                if (current == null) {
+                    return null;
+                }
+                if (operation.getContactDelta() != null) {
+                    return new UndoOperation(
+                            OperationType.UPDATE_CONTACT,
+                            operation.getContactDelta().inverse(current),
+                            operation.getDescription());
+                }
+                return new UndoOperation(
+                        operation.getType() == OperationType.ADD_CONTACT
+                                ? OperationType.DELETE_CONTACT
+                                : OperationType.UPDATE_CONTACT,
+                        current,
+                        operation.getAffectedId(),
+                        operation.getDescription());
+            case DELETE_CONTACT:
+                return new UndoOperation(
+                        OperationType.ADD_CONTACT,
+                        (Contact) null,
+                        operation.getAffectedId(),
+                        operation.getDescription());
+            case ADD_CONTACTS:
+                List<Contact> added = contactManager.getContactsByIds(
+                        contactIds(operation));
+                if (added.isEmpty()) {
+                    return null;
+                }
+                return new UndoOperation(
+                        OperationType.DELETE_CONTACTS,
+                        added,
+                        operation.getDescription());
+            case DELETE_CONTACTS:
+                return new UndoOperation(
+                        OperationType.ADD_CONTACTS,
+                        operation.getContactSnapshots(),
+                        operation.getDescription());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Applies the undo of a contact operation to the database.
+     *
+     * @param operation      The operation to undo
+     * @param contactManager The ContactManager to perform the undo
+     * @return true if undo successful, false otherwise
+     */
+    private boolean applyContactUndo(
+            UndoOperation operation,
+            ContactManager contactManager) {
         try {
             switch (operation.getType()) {
                 case ADD_CONTACT:
@@ -313,7 +750,12 @@ public class UndoManager {
                     return contactManager.deleteContact(
                             operation.getAffectedId());
                 case UPDATE_CONTACT:
-                    // Undo update by restoring previous state
+                    // Undo update by writing back only the changed fields
+                    if (operation.getContactDelta() != null) {
+                        return contactManager.updateContactFields(
+                                operation.getContactDelta());
+                    }
+                    // Full snapshot, e.g. recovered from an older journal
                     Contact previousState = operation.getContactSnapshot();
                     if (previousState != null) {
                         return contactManager.updateContact(previousState);
@@ -326,6 +768,16 @@ public class UndoManager {
                         return contactManager.addContactWithId(deletedContact);
                     }
                     return false;
+                case ADD_CONTACTS:
+                    // Undo batch add with one multi-row delete, which only
+                    // succeeds if every added contact still exists
+                    return !contactManager
+                            .deleteContacts(contactIds(operation), true)
+                            .containsValue(false);
+                case DELETE_CONTACTS:
+                    // Undo batch delete with one batch insert
+                    return contactManager.addContactsWithIds(
+                            operation.getContactSnapshots());
                 default:
                     return false;
             }
@@ -336,6 +788,20 @@ public class UndoManager {
         }
     }
 
+    /**
+     * Gets the IDs of the contacts of an operation on many contacts.
+     *
+     * @param operation The ADD_CONTACTS or DELETE_CONTACTS operation
+     * @return The contact IDs
+     */
+    private static List<Integer> contactIds(UndoOperation operation) {
+        List<Integer> ids = new ArrayList<>();
+        for (Contact contact : operation.getContactSnapshots()) {
+            ids.add(contact.getContactId());
+        }
+        return ids;
+    }
+
     /**
      * Performs the undo operation for users.
      *
@@ -368,16 +834,12 @@ public class UndoManager {
                     }
                     return false;
                 case DELETE_USER:
-                    // Undo delete by re-adding the user
+                    // Undo delete by re-adding the user with its ID and
+                    // password hash
                     User deletedUser = operation.getUserSnapshot();
-                    if (deletedUser != null) {
-                        // Note: Cannot restore exact password hash, would need special handling
-                        return userManager.addUser(
-                                deletedUser.getUsername(),
-                                "resetpassword", // Temporary password
-                                deletedUser.getName(),
-                                deletedUser.getSurname(),
-                                deletedUser.getRole());
+                    if (deletedUser != null
+                            && deletedUser.getPasswordHash() != null) {
+                        return userManager.addUserWithId(deletedUser);
                     }
                     return false;
                 default:
@@ -395,9 +857,22 @@ public class UndoManager {
      *
      * @return List of operation descriptions
      */
-    public java.util.List<String> getUndoHistory() {
-        java.util.List<String> history = new java.util.ArrayList<>();
-        for (UndoOperation op : undoStack) {
+    public List<String> getUndoHistory() {
+        List<String> history = new ArrayList<>();
+        for (UndoOperation op : undoStack.toList()) {
+            history.add(op.getDescription());
+        }
+        return history;
+    }
+
+    /**
+     * Gets a list of all redo operation descriptions.
+     *
+     * @return List of operation descriptions, the next one to redo last
+     */
+    public List<String> getRedoHistory() {
+        List<String> history = new ArrayList<>();
+        for (UndoOperation op : redoStack.toList()) {
             history.add(op.getDescription());
         }
         return history;
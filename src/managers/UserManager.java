@@ -189,6 +189,38 @@ public class UserManager {
         }
     }
 
+    /**
+     * Adds a user keeping its existing ID, password hash and creation time.
+     * Used for undo operations to restore a deleted user exactly as it was,
+     * without hashing a new password.
+     *
+     * @param user The user to restore, as read from the database
+     * @return true if user added successfully, false otherwise
+     */
+    public boolean addUserWithId(User user) {
+        String sql = "INSERT INTO users (user_id, username, password_hash, name, surname, role, created_at) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))";
+
+        try (Connection conn = dbManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, user.getUserId());
+            pstmt.setString(2, user.getUsername());
+            pstmt.setString(3, user.getPasswordHash());
+            pstmt.setString(4, user.getName());
+            pstmt.setString(5, user.getSurname());
+            pstmt.setString(6, user.getRole());
+            pstmt.setTimestamp(7, user.getCreatedAt());
+
+            int rowsAffected = pstmt.executeUpdate();
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error restoring user: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Updates an existing user's information.
      *
@@ -2,6 +2,7 @@ package models;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import utils.SearchKeyUtils;
 
 /**
  * Contact class representing a contact record in the contact management system.
@@ -12,6 +13,15 @@ import java.sql.Timestamp;
  * @version 1.0
  */
 public class Contact {
+    /** Suffix of the column holding the search key of a text field */
+    public static final String SEARCH_KEY_SUFFIX = "_search";
+
+    // Text fields with a search key, in the order of the search key columns
+    private static final String[] SEARCH_KEY_FIELDS = {
+        "first_name", "middle_name", "last_name", "nickname",
+        "phone_primary", "phone_secondary", "email", "linkedin_url"
+    };
+
     private int contactId;
     private String firstName;
     private String middleName;
@@ -25,6 +35,14 @@ public class Contact {
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
+    // Collation keys, computed on first use and reset when the name changes
+    private String firstNameKey;
+    private String lastNameKey;
+
+    // Search keys, by position in SEARCH_KEY_FIELDS; computed on first use
+    // and reset when the field changes
+    private String[] searchKeys;
+
     /**
      * Default constructor for Contact.
      */
@@ -99,6 +117,8 @@ public class Contact {
      */
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        resetSearchKey(0);
+        this.firstNameKey = null;
     }
 
     /**
@@ -117,6 +137,7 @@ public class Contact {
      */
     public void setMiddleName(String middleName) {
         this.middleName = middleName;
+        resetSearchKey(1);
     }
 
     /**
@@ -135,6 +156,8 @@ public class Contact {
      */
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        resetSearchKey(2);
+        this.lastNameKey = null;
     }
 
     /**
@@ -153,6 +176,7 @@ public class Contact {
      */
     public void setNickname(String nickname) {
         this.nickname = nickname;
+        resetSearchKey(3);
     }
 
     /**
@@ -171,6 +195,7 @@ public class Contact {
      */
     public void setPhonePrimary(String phonePrimary) {
         this.phonePrimary = phonePrimary;
+        resetSearchKey(4);
     }
 
     /**
@@ -189,6 +214,7 @@ public class Contact {
      */
     public void setPhoneSecondary(String phoneSecondary) {
         this.phoneSecondary = phoneSecondary;
+        resetSearchKey(5);
     }
 
     /**
@@ -207,6 +233,7 @@ public class Contact {
      */
     public void setEmail(String email) {
         this.email = email;
+        resetSearchKey(6);
     }
 
     /**
@@ -225,6 +252,7 @@ public class Contact {
      */
     public void setLinkedinUrl(String linkedinUrl) {
         this.linkedinUrl = linkedinUrl;
+        resetSearchKey(7);
     }
 
     /**
@@ -281,6 +309,118 @@ public class Contact {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Gets the text fields that have a search key, in the order of their
+     * search key columns (each named field + {@link #SEARCH_KEY_SUFFIX}).
+     *
+     * @return The field names
+     */
+    public static String[] getSearchKeyFields() {
+        return SEARCH_KEY_FIELDS.clone();
+    }
+
+    /**
+     * Gets the position of a text field among the fields with a search key.
+     *
+     * @param fieldName The field name, e.g. "last_name"
+     * @return The position to pass to {@link #getSearchKey(int)}, or -1 if
+     *         the field has no search key
+     */
+    public static int searchKeyIndex(String fieldName) {
+        String field = fieldName.toLowerCase();
+        for (int i = 0; i < SEARCH_KEY_FIELDS.length; i++) {
+            if (SEARCH_KEY_FIELDS[i].equals(field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the search key of a text field: the value folded with Turkish
+     * case rules and without diacritics, as stored in the field's search
+     * key column.
+     *
+     * @param index The position of the field (see {@link #searchKeyIndex(String)})
+     * @return The search key (null if the field is empty)
+     * @see SearchKeyUtils#searchKey(String)
+     */
+    public String getSearchKey(int index) {
+        if (searchKeys == null) {
+            searchKeys = new String[SEARCH_KEY_FIELDS.length];
+        }
+        if (searchKeys[index] == null) {
+            searchKeys[index] = SearchKeyUtils.searchKey(searchKeyField(index));
+        }
+        return searchKeys[index];
+    }
+
+    /**
+     * Gets the value of a text field with a search key.
+     *
+     * @param index The position of the field in SEARCH_KEY_FIELDS
+     * @return The field value
+     */
+    private String searchKeyField(int index) {
+        switch (index) {
+            case 0:
+                return firstName;
+            case 1:
+                return middleName;
+            case 2:
+                return lastName;
+            case 3:
+                return nickname;
+            case 4:
+                return phonePrimary;
+            case 5:
+                return phoneSecondary;
+            case 6:
+                return email;
+            default:
+                return linkedinUrl;
+        }
+    }
+
+    /**
+     * Forgets the search key of a field after the field changed.
+     *
+     * @param index The position of the field in SEARCH_KEY_FIELDS
+     */
+    private void resetSearchKey(int index) {
+        if (searchKeys != null) {
+            searchKeys[index] = null;
+        }
+    }
+
+    /**
+     * Gets the collation key of the first name, which sorts in Turkish
+     * alphabetical order under a plain String comparison.
+     *
+     * @return The first name's collation key (null if there is no first name)
+     * @see SearchKeyUtils#collationKey(String)
+     */
+    public String getFirstNameKey() {
+        if (firstNameKey == null) {
+            firstNameKey = SearchKeyUtils.collationKey(firstName);
+        }
+        return firstNameKey;
+    }
+
+    /**
+     * Gets the collation key of the last name, which sorts in Turkish
+     * alphabetical order under a plain String comparison.
+     *
+     * @return The last name's collation key (null if there is no last name)
+     * @see SearchKeyUtils#collationKey(String)
+     */
+    public String getLastNameKey() {
+        if (lastNameKey == null) {
+            lastNameKey = SearchKeyUtils.collationKey(lastName);
+        }
+        return lastNameKey;
+    }
+
     /**
      * Gets the full name of the contact (firstName + middleName + lastName).
      *
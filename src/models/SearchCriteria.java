@@ -1,11 +1,20 @@
 package models;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import utils.SearchKeyUtils;
 
 /**
  * SearchCriteria class for building flexible, composable search queries.
- * Supports both exact and partial (substring-based) matches across multiple fields.
+ * Supports exact, partial (substring-based), prefix, range and IN-list
+ * matches across multiple fields.
+ * Criteria can be nested: a SearchCriteria may contain groups, which are
+ * SearchCriteria themselves with their own logical operator, and any group
+ * can be negated. Together these form an expression tree such as
+ * {@code last_name = ? AND (email LIKE ? OR NOT (birth_date < ?))}.
  * Demonstrates the Builder pattern and encapsulation principles.
  *
  * @author CMPE-343 Project Group
@@ -13,7 +22,9 @@ import java.util.List;
  */
 public class SearchCriteria {
     private List<Criterion> criteria;
+    private List<SearchCriteria> groups;
     private String logicalOperator; // "AND" or "OR"
+    private boolean negated;
 
     /**
      * Inner class representing a single search criterion.
@@ -21,6 +32,7 @@ public class SearchCriteria {
     public static class Criterion {
         private String fieldName;
         private String value;
+        private List<String> values;
         private MatchType matchType;
 
         /**
@@ -33,6 +45,21 @@ public class SearchCriteria {
         public Criterion(String fieldName, String value, MatchType matchType) {
             this.fieldName = fieldName;
             this.value = value;
+            this.values = Collections.singletonList(value);
+            this.matchType = matchType;
+        }
+
+        /**
+         * Constructor for a Criterion with several values (BETWEEN or IN).
+         *
+         * @param fieldName The name of the field to search
+         * @param values    The values; the bounds for BETWEEN, the list for IN
+         * @param matchType The type of match
+         */
+        public Criterion(String fieldName, List<String> values, MatchType matchType) {
+            this.fieldName = fieldName;
+            this.value = values.isEmpty() ? null : values.get(0);
+            this.values = new ArrayList<>(values);
             this.matchType = matchType;
         }
 
@@ -48,12 +75,22 @@ public class SearchCriteria {
         /**
          * Gets the search value.
          *
-         * @return The search value
+         * @return The search value (the first value for BETWEEN and IN)
          */
         public String getValue() {
             return value;
         }
 
+        /**
+         * Gets all search values.
+         *
+         * @return The values: one for most match types, the lower and upper
+         *         bound for BETWEEN, and the whole list for IN
+         */
+        public List<String> getValues() {
+            return new ArrayList<>(values);
+        }
+
         /**
          * Gets the match type.
          *
@@ -63,9 +100,92 @@ public class SearchCriteria {
             return matchType;
         }
 
+        /**
+         * Builds the SQL condition of this criterion. Text fields are
+         * compared through their stored search key columns.
+         *
+         * @return SQL condition with "?" placeholders
+         */
+        private String toSQL() {
+            String column = isSearchKeyField()
+                ? fieldName + Contact.SEARCH_KEY_SUFFIX
+                : fieldName;
+            switch (matchType) {
+                case EXACT:
+                    return column + " = ?";
+                case BEFORE:
+                    return column + " < ?";
+                case AFTER:
+                    return column + " > ?";
+                case BETWEEN:
+                    return column + " BETWEEN ? AND ?";
+                case IN:
+                    String placeholders = String.join(
+                        ", ",
+                        Collections.nCopies(values.size(), "?")
+                    );
+                    return column + " IN (" + placeholders + ")";
+                default:
+                    return column + " LIKE ?"; // PARTIAL and PREFIX
+            }
+        }
+
+        /**
+         * Adds the values bound to this criterion's placeholders.
+         * Values of text fields are turned into search keys, and PARTIAL and
+         * PREFIX values get their LIKE wildcards.
+         *
+         * @param parameters The list to add to
+         */
+        private void addParameterValues(List<String> parameters) {
+            boolean searchKeys = isSearchKeyField();
+            switch (matchType) {
+                case PARTIAL:
+                    parameters.add("%" + parameterValue(value, searchKeys) + "%");
+                    break;
+                case PREFIX:
+                    parameters.add(parameterValue(value, searchKeys) + "%");
+                    break;
+                default:
+                    for (String v : values) {
+                        parameters.add(parameterValue(v, searchKeys));
+                    }
+            }
+        }
+
+        /**
+         * Checks whether the field is a text field with a stored search key.
+         *
+         * @return true if the field is compared through its search key
+         */
+        private boolean isSearchKeyField() {
+            return Contact.searchKeyIndex(fieldName) >= 0;
+        }
+
+        /**
+         * Converts a value to the form it is compared in.
+         *
+         * @param v          The value
+         * @param searchKeys Whether the field is compared through search keys
+         * @return The search key of the value, or the value itself
+         */
+        private static String parameterValue(String v, boolean searchKeys) {
+            return searchKeys ? SearchKeyUtils.searchKey(v) : v;
+        }
+
         @Override
         public String toString() {
-            return fieldName + " " + matchType + " '" + value + "'";
+            switch (matchType) {
+                case BETWEEN:
+                    return (
+                        fieldName + " BETWEEN '" + values.get(0) +
+                        "' AND '" + values.get(1) + "'"
+                    );
+                case IN:
+                    return fieldName + " IN ('" + String.join("', '", values) + "')";
+                default:
+                    return fieldName + " " + matchType + " '" + value + "'";
+            }
         }
     }
 
@@ -81,7 +201,33 @@ public class SearchCriteria {
         /**
          * Partial match - field must contain the value as a substring.
          */
-        PARTIAL
+        PARTIAL,
+
+        /**
+         * Prefix match - field must start with the value.
+         * Unlike a partial match, this can use an index on the field.
+         */
+        PREFIX,
+
+        /**
+         * IN-list - field must exactly equal one of the values.
+         */
+        IN,
+
+        /**
+         * Range - field must be less than the value (e.g. born before a date).
+         */
+        BEFORE,
+
+        /**
+         * Range - field must be greater than the value (e.g. born after a date).
+         */
+        AFTER,
+
+        /**
+         * Range - field must lie between the two values, both inclusive.
+         */
+        BETWEEN
     }
 
     /**
@@ -89,6 +235,7 @@ public class SearchCriteria {
      */
     public SearchCriteria() {
         this.criteria = new ArrayList<>();
+        this.groups = new ArrayList<>();
         this.logicalOperator = "AND";
     }
 
@@ -99,6 +246,7 @@ public class SearchCriteria {
      */
     public SearchCriteria(String logicalOperator) {
         this.criteria = new ArrayList<>();
+        this.groups = new ArrayList<>();
         this.logicalOperator = logicalOperator.toUpperCase();
     }
 
@@ -137,15 +285,117 @@ public class SearchCriteria {
         return addCriterion(fieldName, value, MatchType.PARTIAL);
     }
 
+    /**
+     * Adds a prefix match criterion.
+     *
+     * @param fieldName The field name to search
+     * @param prefix    The value the field must start with
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria addPrefixMatch(String fieldName, String prefix) {
+        return addCriterion(fieldName, prefix, MatchType.PREFIX);
+    }
+
+    /**
+     * Adds an IN-list criterion.
+     *
+     * @param fieldName The field name to search
+     * @param values    The values, one of which the field must equal
+     * @return This SearchCriteria object for method chaining
+     * @throws IllegalArgumentException If the list is empty
+     */
+    public SearchCriteria addInList(String fieldName, List<String> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException(
+                "IN-list for " + fieldName + " is empty"
+            );
+        }
+        criteria.add(new Criterion(fieldName, values, MatchType.IN));
+        return this;
+    }
+
+    /**
+     * Adds a criterion requiring the field to be less than a value,
+     * e.g. a birth date before "1990-01-01".
+     *
+     * @param fieldName The field name to search
+     * @param value     The exclusive upper bound
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria addBefore(String fieldName, String value) {
+        return addCriterion(fieldName, value, MatchType.BEFORE);
+    }
+
+    /**
+     * Adds a criterion requiring the field to be greater than a value,
+     * e.g. a birth date after "1990-01-01".
+     *
+     * @param fieldName The field name to search
+     * @param value     The exclusive lower bound
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria addAfter(String fieldName, String value) {
+        return addCriterion(fieldName, value, MatchType.AFTER);
+    }
+
+    /**
+     * Adds a criterion requiring the field to lie in a range.
+     *
+     * @param fieldName The field name to search
+     * @param from      The inclusive lower bound
+     * @param to        The inclusive upper bound
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria addBetween(String fieldName, String from, String to) {
+        List<String> bounds = new ArrayList<>();
+        bounds.add(from);
+        bounds.add(to);
+        criteria.add(new Criterion(fieldName, bounds, MatchType.BETWEEN));
+        return this;
+    }
+
+    /**
+     * Adds a nested group of criteria, combined with this object's criteria
+     * by this object's logical operator.
+     *
+     * @param group The group, with its own logical operator
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria addGroup(SearchCriteria group) {
+        groups.add(group);
+        return this;
+    }
+
+    /**
+     * Negates this search: it then matches exactly the contacts it would
+     * not match otherwise, including contacts whose searched fields are
+     * empty. Calling it twice cancels out.
+     *
+     * @return This SearchCriteria object for method chaining
+     */
+    public SearchCriteria negate() {
+        negated = !negated;
+        return this;
+    }
+
     /**
      * Gets the list of all criteria.
      *
-     * @return List of criteria
+     * @return List of criteria (not including those of nested groups)
      */
     public List<Criterion> getCriteria() {
         return new ArrayList<>(criteria);
     }
 
+    /**
+     * Gets the nested groups.
+     *
+     * @return List of groups
+     */
+    public List<SearchCriteria> getGroups() {
+        return new ArrayList<>(groups);
+    }
+
     /**
      * Gets the logical operator.
      *
@@ -165,89 +415,164 @@ public class SearchCriteria {
     }
 
     /**
-     * Checks if there are any criteria defined.
+     * Checks whether this search is negated.
      *
-     * @return true if criteria list is not empty, false otherwise
+     * @return true if the search is wrapped in NOT
+     */
+    public boolean isNegated() {
+        return negated;
+    }
+
+    /**
+     * Checks if there are any criteria defined, directly or in a group.
+     *
+     * @return true if there is at least one criterion, false otherwise
      */
     public boolean hasCriteria() {
-        return !criteria.isEmpty();
+        if (!criteria.isEmpty()) {
+            return true;
+        }
+        for (SearchCriteria group : groups) {
+            if (group.hasCriteria()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Gets the number of criteria.
+     * Gets the number of criteria, counting each nested group as one.
      *
-     * @return The count of criteria
+     * @return The count of criteria and groups
      */
     public int getCriteriaCount() {
-        return criteria.size();
+        return criteria.size() + groups.size();
     }
 
     /**
-     * Clears all criteria.
+     * Clears all criteria and groups.
      */
     public void clear() {
         criteria.clear();
+        groups.clear();
+        negated = false;
+    }
+
+    /**
+     * Gets a key that identifies the search regardless of how it was built.
+     * The order of the criteria and duplicate criteria do not change the
+     * result of an AND or OR search, so they are sorted and deduplicated;
+     * field names are compared case-insensitively. Two searches with the
+     * same key always return the same contacts.
+     *
+     * @return The canonical key of this search
+     */
+    public String getCanonicalKey() {
+        Set<String> parts = new TreeSet<>();
+        for (Criterion criterion : criteria) {
+            List<String> values = criterion.getValues();
+            if (criterion.getMatchType() == MatchType.IN) {
+                Collections.sort(values); // The order of an IN-list is irrelevant
+            }
+            StringBuilder part = new StringBuilder(
+                criterion.getFieldName().toLowerCase() + " " +
+                criterion.getMatchType()
+            );
+            for (String value : values) {
+                // Values are length-prefixed so no value can imitate a separator
+                part.append(' ');
+                part.append(value == null ? "-" : value.length() + ":" + value);
+            }
+            parts.add(part.toString());
+        }
+        for (SearchCriteria group : groups) {
+            if (group.hasCriteria()) {
+                String groupKey = group.getCanonicalKey();
+                parts.add("( " + groupKey.length() + ":" + groupKey);
+            }
+        }
+
+        // With a single criterion the operator makes no difference
+        StringBuilder key = new StringBuilder(negated ? "NOT " : "");
+        key.append(parts.size() > 1 ? logicalOperator : "AND");
+        for (String part : parts) {
+            key.append('\n').append(part);
+        }
+        return key.toString();
     }
 
     /**
      * Builds a SQL WHERE clause from the criteria.
+     * Prefix matches become {@code LIKE 'x%'} and ranges become comparisons
+     * or BETWEEN, so the database can use the field's index for them.
      *
      * @return SQL WHERE clause string
      */
     public String toSQLWhereClause() {
-        if (criteria.isEmpty()) {
-            return "";
+        List<String> terms = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            terms.add(criterion.toSQL());
         }
-
-        StringBuilder sql = new StringBuilder();
-        for (int i = 0; i < criteria.size(); i++) {
-            Criterion criterion = criteria.get(i);
-
-            if (i > 0) {
-                sql.append(" ").append(logicalOperator).append(" ");
-            }
-
-            if (criterion.getMatchType() == MatchType.EXACT) {
-                sql.append(criterion.getFieldName()).append(" = ?");
-            } else {
-                sql.append(criterion.getFieldName()).append(" LIKE ?");
+        for (SearchCriteria group : groups) {
+            String groupClause = group.toSQLWhereClause();
+            if (!groupClause.isEmpty()) {
+                terms.add("(" + groupClause + ")");
             }
         }
+        if (terms.isEmpty()) {
+            return "";
+        }
 
-        return sql.toString();
+        String sql = String.join(" " + logicalOperator + " ", terms);
+        // A condition on an empty (NULL) field is unknown rather than false,
+        // and NOT would keep it unknown; COALESCE makes excluding a condition
+        // keep the contacts that do not have the field at all
+        return negated ? "NOT COALESCE(" + sql + ", FALSE)" : sql;
     }
 
     /**
-     * Gets the values for prepared statement parameters.
-     * For PARTIAL matches, adds wildcards.
+     * Gets the values for prepared statement parameters, in the order of
+     * the placeholders in {@link #toSQLWhereClause()}.
+     * For PARTIAL and PREFIX matches, adds wildcards.
      *
      * @return List of values for SQL parameters
      */
     public List<String> getParameterValues() {
         List<String> values = new ArrayList<>();
         for (Criterion criterion : criteria) {
-            if (criterion.getMatchType() == MatchType.PARTIAL) {
-                values.add("%" + criterion.getValue() + "%");
-            } else {
-                values.add(criterion.getValue());
-            }
+            criterion.addParameterValues(values);
+        }
+        for (SearchCriteria group : groups) {
+            values.addAll(group.getParameterValues());
         }
         return values;
     }
 
     @Override
     public String toString() {
-        if (criteria.isEmpty()) {
+        if (!hasCriteria()) {
             return "No search criteria";
         }
+        return "Search: " + describe();
+    }
 
-        StringBuilder sb = new StringBuilder("Search: ");
-        for (int i = 0; i < criteria.size(); i++) {
-            if (i > 0) {
-                sb.append(" ").append(logicalOperator).append(" ");
+    /**
+     * Describes the criteria and groups in a readable form.
+     *
+     * @return The description, e.g. "a EXACT 'x' AND (b PREFIX 'y' OR ...)"
+     */
+    private String describe() {
+        List<String> terms = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            terms.add(criterion.toString());
+        }
+        for (SearchCriteria group : groups) {
+            if (group.hasCriteria()) {
+                terms.add("(" + group.describe() + ")");
             }
-            sb.append(criteria.get(i).toString());
         }
-        return sb.toString();
+
+        String description = String.join(" " + logicalOperator + " ", terms);
+        return negated ? "NOT (" + description + ")" : description;
     }
 }
@@ -1,5 +1,6 @@
 package roles;
 
+import java.nio.file.Paths;
 import java.util.Scanner;
 import managers.ContactManager;
 import managers.DatabaseManager;
@@ -18,6 +19,9 @@ import utils.ColorUtils;
  */
 public abstract class BaseRole {
 
+    /** Directory holding one undo journal per user, keyed by user ID */
+    private static final String UNDO_JOURNAL_DIRECTORY = "undo-journal";
+
     /** The currently logged-in user */
     protected User currentUser;
 
@@ -49,6 +53,12 @@ public abstract class BaseRole {
         this.scanner = scanner;
         this.contactManager = new ContactManager(dbManager);
         this.undoManager = new UndoManager();
+        // Without a logged-in user the undo history stays in memory only
+        if (user != null) {
+            this.undoManager.openJournal(
+                Paths.get(UNDO_JOURNAL_DIRECTORY, "user-" + user.getUserId())
+            );
+        }
         this.isLoggedIn = true;
     }
 
@@ -280,6 +290,7 @@ public abstract class BaseRole {
             )
         );
         isLoggedIn = false;
+        undoManager.closeJournal();
 
         try {
             Thread.sleep(1000);
@@ -1,7 +1,6 @@
 package roles;
 
 import java.sql.Date;
-import java.util.List;
 import java.util.Scanner;
 import managers.DatabaseManager;
 import models.Contact;
@@ -84,6 +83,12 @@ public class JuniorDeveloper extends Tester {
         System.out.println(
             ColorUtils.colorize("  9. Logout", ColorUtils.WHITE)
         );
+        System.out.println(
+            ColorUtils.colorize(
+                " 10. Redo Last Undone Operation",
+                ColorUtils.YELLOW
+            )
+        );
     }
 
     @Override
@@ -116,6 +121,9 @@ public class JuniorDeveloper extends Tester {
             case "9":
                 logout();
                 break;
+            case "10":
+                redoLastOperation();
+                break;
             default:
                 displayInvalidChoice();
                 break;
@@ -149,19 +157,12 @@ public class JuniorDeveloper extends Tester {
             );
             System.out.println();
 
-            // Show all contacts first
-            List<Contact> allContacts = contactManager.getAllContacts();
-            if (allContacts.isEmpty()) {
+            // Show all contacts first, one page at a time
+            if (!browseContacts("Available contacts:")) {
                 displayInfo("No contacts available to update.");
                 pauseScreen();
                 return;
             }
-
-            System.out.println(
-                ColorUtils.colorize("Available contacts:", ColorUtils.YELLOW)
-            );
-            System.out.println();
-            displayContactList(allContacts);
             System.out.println();
 
             System.out.print(
@@ -490,6 +491,7 @@ public class JuniorDeveloper extends Tester {
                 // Record for undo
                 undoManager.recordUpdateContact(
                     previousState,
+                    existingContact,
                     "Updated contact: " + existingContact.getFullName()
                 );
                 displaySuccess("Contact updated successfully!");
@@ -719,4 +721,77 @@ public class JuniorDeveloper extends Tester {
 
         pauseScreen();
     }
+
+    /**
+     * Redoes the most recently undone operation, re-applying it without
+     * entering the data again.
+     */
+    protected void redoLastOperation() {
+        ColorUtils.clearScreen();
+        System.out.println(
+            ColorUtils.colorize(
+                "╔══════════════════════════════════════════════════════╗",
+                ColorUtils.YELLOW
+            )
+        );
+        System.out.println(
+            ColorUtils.colorize(
+                "║                    REDO OPERATION                    ║",
+                ColorUtils.YELLOW
+            )
+        );
+        System.out.println(
+            ColorUtils.colorize(
+                "╚══════════════════════════════════════════════════════╝",
+                ColorUtils.YELLOW
+            )
+        );
+        System.out.println();
+
+        if (!undoManager.canRedo()) {
+            displayInfo("No undone operations to redo.");
+            pauseScreen();
+            return;
+        }
+
+        System.out.println(
+            ColorUtils.colorize(
+                    "Next operation to redo (most recently undone): ",
+                    ColorUtils.YELLOW
+                ) +
+                undoManager.peekRedoOperation().getDescription()
+        );
+        System.out.println();
+
+        String confirm = null;
+        while (confirm == null) {
+            System.out.print(
+                ColorUtils.colorize(
+                    "Redo this operation? (yes/no): ",
+                    ColorUtils.YELLOW
+                )
+            );
+            String input = scanner.nextLine().trim().toLowerCase();
+
+            if (ValidationUtils.isValidYesNo(input)) {
+                confirm = input;
+            } else {
+                displayError("Invalid input! Please enter 'yes' or 'no'.");
+            }
+        }
+
+        if (!ValidationUtils.yesNoToBoolean(confirm)) {
+            displayInfo("Redo cancelled.");
+        } else {
+            managers.UndoManager.UndoOperation op =
+                undoManager.redoContactOperation(contactManager);
+            if (op != null) {
+                displaySuccess("✓ Operation redone: " + op.getDescription());
+            } else {
+                displayError("✗ Failed to redo the operation.");
+            }
+        }
+
+        pauseScreen();
+    }
 }
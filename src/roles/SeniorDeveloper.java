@@ -2,8 +2,11 @@ package roles;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import managers.DatabaseManager;
 import models.Contact;
 import models.User;
@@ -103,6 +106,12 @@ public class SeniorDeveloper extends JuniorDeveloper {
         System.out.println(
             ColorUtils.colorize(" 13. Logout", ColorUtils.WHITE)
         );
+        System.out.println(
+            ColorUtils.colorize(
+                " 14. Redo Last Undone Operation",
+                ColorUtils.YELLOW
+            )
+        );
     }
 
     @Override
@@ -147,6 +156,9 @@ public class SeniorDeveloper extends JuniorDeveloper {
             case "13":
                 logout();
                 break;
+            case "14":
+                redoLastOperation();
+                break;
             default:
                 displayInvalidChoice();
                 break;
@@ -502,6 +514,7 @@ public class SeniorDeveloper extends JuniorDeveloper {
 
         int successCount = 0;
         int failCount = 0;
+        List<Contact> pendingContacts = new ArrayList<>();
 
         for (int i = 1; i <= count; i++) {
             System.out.println();
@@ -566,17 +579,29 @@ public class SeniorDeveloper extends JuniorDeveloper {
             }
             contact.setBirthDate(Date.valueOf(birthDate));
 
-            // Add contact
-            int newId = contactManager.addContact(contact);
+            pendingContacts.add(contact);
+            System.out.println(
+                ColorUtils.colorize("✓ Contact queued", ColorUtils.GREEN)
+            );
+        }
+
+        // Insert all valid contacts in one batch
+        List<Integer> newIds = contactManager.addContacts(pendingContacts);
+        List<Contact> addedContacts = new ArrayList<>();
+        System.out.println();
+        for (int i = 0; i < pendingContacts.size(); i++) {
+            Contact contact = pendingContacts.get(i);
+            int newId = newIds.get(i);
             if (newId > 0) {
-                undoManager.recordAddContact(
-                    newId,
-                    "Batch added contact: " + contact.getFullName()
-                );
+                addedContacts.add(contact);
                 successCount++;
                 System.out.println(
                     ColorUtils.colorize(
-                        "✓ Contact added (ID: " + newId + ")",
+                        "✓ Contact added: " +
+                            contact.getFullName() +
+                            " (ID: " +
+                            newId +
+                            ")",
                         ColorUtils.GREEN
                     )
                 );
@@ -584,12 +609,18 @@ public class SeniorDeveloper extends JuniorDeveloper {
                 failCount++;
                 System.out.println(
                     ColorUtils.colorize(
-                        "✗ Failed to add contact",
+                        "✗ Failed to add contact: " +
+                            contact.getFullName() +
+                            " (email may already exist)",
                         ColorUtils.RED
                     )
                 );
             }
         }
+        undoManager.recordAddContacts(
+            addedContacts,
+            "Batch added " + addedContacts.size() + " contact(s)"
+        );
 
         System.out.println();
         System.out.println(
@@ -639,19 +670,12 @@ public class SeniorDeveloper extends JuniorDeveloper {
             );
             System.out.println();
 
-            // Show all contacts first
-            List<Contact> allContacts = contactManager.getAllContacts();
-            if (allContacts.isEmpty()) {
+            // Show all contacts first, one page at a time
+            if (!browseContacts("Available contacts:")) {
                 displayInfo("No contacts available to delete.");
                 pauseScreen();
                 return;
             }
-
-            System.out.println(
-                ColorUtils.colorize("Available contacts:", ColorUtils.YELLOW)
-            );
-            System.out.println();
-            displayContactList(allContacts);
             System.out.println();
 
             System.out.print(
@@ -773,19 +797,12 @@ public class SeniorDeveloper extends JuniorDeveloper {
         );
         System.out.println();
 
-        // Show all contacts first
-        List<Contact> allContacts = contactManager.getAllContacts();
-        if (allContacts.isEmpty()) {
+        // Show all contacts first, one page at a time
+        if (!browseContacts("Available contacts:")) {
             displayInfo("No contacts available to delete.");
             pauseScreen();
             return;
         }
-
-        System.out.println(
-            ColorUtils.colorize("Available contacts:", ColorUtils.YELLOW)
-        );
-        System.out.println();
-        displayContactList(allContacts);
         System.out.println();
 
         System.out.print(
@@ -803,8 +820,7 @@ public class SeniorDeveloper extends JuniorDeveloper {
         }
 
         String[] idStrings = idsInput.split(",");
-        List<Integer> contactIds = new ArrayList<>();
-        List<Contact> contactsToDelete = new ArrayList<>();
+        List<Integer> requestedIds = new ArrayList<>();
 
         for (String idStr : idStrings) {
             idStr = idStr.trim();
@@ -812,19 +828,25 @@ public class SeniorDeveloper extends JuniorDeveloper {
                 displayWarning("Skipping invalid ID: " + idStr);
                 continue;
             }
+            requestedIds.add(Integer.parseInt(idStr));
+        }
 
-            int contactId = Integer.parseInt(idStr);
-            Contact contact = contactManager.getContactById(contactId);
+        // Fetch every snapshot (for display and undo) in one query
+        List<Contact> contactsToDelete = contactManager.getContactsByIds(
+            requestedIds
+        );
+        List<Integer> contactIds = new ArrayList<>();
+        for (Contact contact : contactsToDelete) {
+            contactIds.add(contact.getContactId());
+        }
 
-            if (contact == null) {
+        Set<Integer> foundIds = new HashSet<>(contactIds);
+        for (int contactId : requestedIds) {
+            if (!foundIds.contains(contactId)) {
                 displayWarning(
                     "Contact with ID " + contactId + " not found, skipping..."
                 );
-                continue;
             }
-
-            contactIds.add(contactId);
-            contactsToDelete.add(contact);
         }
 
         if (contactIds.isEmpty()) {
@@ -880,17 +902,21 @@ public class SeniorDeveloper extends JuniorDeveloper {
             return;
         }
 
-        // Perform deletions
-        int deletedCount = 0;
+        // Perform deletions in a single batch
+        Map<Integer, Boolean> outcomes = contactManager.deleteContacts(
+            contactIds
+        );
+        List<Contact> deletedContacts = new ArrayList<>();
         for (Contact contact : contactsToDelete) {
-            if (contactManager.deleteContact(contact.getContactId())) {
-                undoManager.recordDeleteContact(
-                    contact,
-                    "Batch deleted contact: " + contact.getFullName()
-                );
-                deletedCount++;
+            if (outcomes.getOrDefault(contact.getContactId(), false)) {
+                deletedContacts.add(contact);
             }
         }
+        int deletedCount = deletedContacts.size();
+        undoManager.recordDeleteContacts(
+            deletedContacts,
+            "Batch deleted " + deletedCount + " contact(s)"
+        );
 
         System.out.println();
         if (deletedCount == contactIds.size()) {
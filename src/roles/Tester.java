@@ -1,5 +1,8 @@
 package roles;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 import managers.ContactManager;
@@ -7,6 +10,7 @@ import managers.DatabaseManager;
 import models.Contact;
 import models.SearchCriteria;
 import utils.ColorUtils;
+import utils.ValidationUtils;
 
 /**
  * Tester role class extending BaseRole.
@@ -18,6 +22,12 @@ import utils.ColorUtils;
  */
 public class Tester extends BaseRole {
 
+    /** Number of contacts shown per page when browsing the contact table */
+    protected static final int CONTACT_PAGE_SIZE = 20;
+
+    /** Maximum number of suggestions shown by the quick lookup */
+    protected static final int QUICK_LOOKUP_LIMIT = 10;
+
     /**
      * Constructor for Tester role.
      *
@@ -154,19 +164,67 @@ public class Tester extends BaseRole {
         );
         System.out.println();
 
-        List<Contact> contacts = contactManager.getAllContacts();
+        int totalContacts = contactManager.getContactCount();
 
-        if (contacts.isEmpty()) {
+        if (totalContacts == 0) {
             displayInfo("No contacts found in the database.");
         } else {
-            displayInfo("Total contacts: " + contacts.size());
+            displayInfo("Total contacts: " + totalContacts);
             System.out.println();
-            displayContactList(contacts);
+            browseContacts(null);
         }
 
         pauseScreen();
     }
 
+    /**
+     * Shows all contacts page by page, fetching each page from the database
+     * only when the user asks for it.
+     *
+     * @param heading Heading printed above the first page, or null for none
+     * @return true if at least one contact was shown, false if there are none
+     */
+    protected boolean browseContacts(String heading) {
+        List<Contact> page = contactManager.getContactsPage(
+            0,
+            CONTACT_PAGE_SIZE + 1
+        );
+        if (page.isEmpty()) {
+            return false;
+        }
+
+        if (heading != null) {
+            System.out.println(ColorUtils.colorize(heading, ColorUtils.YELLOW));
+            System.out.println();
+        }
+
+        while (true) {
+            // One extra row tells us whether another page follows
+            boolean hasMore = page.size() > CONTACT_PAGE_SIZE;
+            if (hasMore) {
+                page = page.subList(0, CONTACT_PAGE_SIZE);
+            }
+            displayContactList(page);
+
+            if (!hasMore) {
+                return true;
+            }
+
+            System.out.print(
+                ColorUtils.colorize(
+                    "Press Enter for the next page, or 'q' to stop browsing: ",
+                    ColorUtils.BRIGHT_BLACK
+                )
+            );
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return true;
+            }
+
+            int lastId = page.get(page.size() - 1).getContactId();
+            page = contactManager.getContactsPage(lastId, CONTACT_PAGE_SIZE + 1);
+        }
+    }
+
     /**
      * Displays a list of contacts in a formatted table.
      *
@@ -326,22 +384,12 @@ public class Tester extends BaseRole {
             );
             System.out.println();
 
-            // Show all contacts first for reference
-            List<Contact> allContacts = contactManager.getAllContacts();
-            if (allContacts.isEmpty()) {
+            // Show all contacts first for reference, one page at a time
+            if (!browseContacts("All contacts (for reference):")) {
                 displayInfo("No contacts available to search.");
                 pauseScreen();
                 return;
             }
-
-            System.out.println(
-                ColorUtils.colorize(
-                    "All contacts (for reference):",
-                    ColorUtils.YELLOW
-                )
-            );
-            System.out.println();
-            displayContactList(allContacts);
             System.out.println();
 
             System.out.println(
@@ -354,6 +402,7 @@ public class Tester extends BaseRole {
             System.out.println("  5. Nickname");
             System.out.println("  6. Birth Date");
             System.out.println("  7. LinkedIn URL");
+            System.out.println("  8. Quick lookup (name, nickname or email prefix)");
             System.out.println("  0. Cancel");
             System.out.println();
 
@@ -366,6 +415,11 @@ public class Tester extends BaseRole {
                 return;
             }
 
+            if (fieldChoice.equals("8")) {
+                quickLookup();
+                return;
+            }
+
             String fieldName = getFieldNameFromChoice(fieldChoice);
             if (fieldName == null) {
                 displayError("Invalid field selection! Please try again.");
@@ -439,6 +493,39 @@ public class Tester extends BaseRole {
         }
     }
 
+    /**
+     * Type-ahead lookup: shows the contacts whose first name, last name,
+     * nickname or email starts with the entered prefix. Each prefix is
+     * answered from memory, so the user can keep refining it.
+     */
+    protected void quickLookup() {
+        System.out.println();
+        displayInfo("Type the beginning of a name, nickname or email.");
+
+        while (true) {
+            System.out.print(
+                ColorUtils.colorize(
+                    "\nPrefix (empty to finish): ",
+                    ColorUtils.CYAN
+                )
+            );
+            String prefix = scanner.nextLine().trim();
+            if (prefix.isEmpty()) {
+                return;
+            }
+
+            List<Integer> ids = contactManager.lookupContactIds(
+                prefix,
+                QUICK_LOOKUP_LIMIT
+            );
+            if (ids.isEmpty()) {
+                displayInfo("No contacts start with '" + prefix + "'.");
+            } else {
+                displayContactList(contactManager.getContactsByIds(ids));
+            }
+        }
+    }
+
     /**
      * Searches contacts by multiple fields.
      */
@@ -465,22 +552,12 @@ public class Tester extends BaseRole {
             );
             System.out.println();
 
-            // Show all contacts first for reference
-            List<Contact> allContacts = contactManager.getAllContacts();
-            if (allContacts.isEmpty()) {
+            // Show all contacts first for reference, one page at a time
+            if (!browseContacts("All contacts (for reference):")) {
                 displayInfo("No contacts available to search.");
                 pauseScreen();
                 return;
             }
-
-            System.out.println(
-                ColorUtils.colorize(
-                    "All contacts (for reference):",
-                    ColorUtils.YELLOW
-                )
-            );
-            System.out.println();
-            displayContactList(allContacts);
             System.out.println();
 
             System.out.print(
@@ -654,22 +731,12 @@ public class Tester extends BaseRole {
             );
             System.out.println();
 
-            // Show all contacts first for reference
-            List<Contact> allContacts = contactManager.getAllContacts();
-            if (allContacts.isEmpty()) {
+            // Show all contacts first for reference, one page at a time
+            if (!browseContacts("All contacts (for reference):")) {
                 displayInfo("No contacts available to search.");
                 pauseScreen();
                 return;
             }
-
-            System.out.println(
-                ColorUtils.colorize(
-                    "All contacts (for reference):",
-                    ColorUtils.YELLOW
-                )
-            );
-            System.out.println();
-            displayContactList(allContacts);
             System.out.println();
 
             System.out.println(
@@ -761,43 +828,87 @@ public class Tester extends BaseRole {
                     }
                 }
 
-                String value = null;
-                while (value == null || value.isEmpty()) {
-                    System.out.print(
-                        ColorUtils.colorize(
-                            "  Enter value to search: ",
-                            ColorUtils.CYAN
-                        )
-                    );
-                    value = scanner.nextLine().trim();
-
-                    if (value.isEmpty()) {
-                        displayError(
-                            "  Value cannot be empty! Please try again."
-                        );
-                    }
-                }
-
+                // Date ranges are offered for the birth date only
+                boolean dateField = fieldName.equals("birth_date");
+                int maxMatchChoice = dateField ? 7 : 4;
                 String matchChoice = null;
                 while (matchChoice == null) {
                     System.out.print(
                         ColorUtils.colorize(
-                            "  Match type (1=Exact, 2=Contains): ",
+                            dateField
+                                ? "  Match type (1=Exact, 2=Contains, 3=Starts with, " +
+                                  "4=One of, 5=Before, 6=After, 7=Between): "
+                                : "  Match type (1=Exact, 2=Contains, 3=Starts with, " +
+                                  "4=One of): ",
                             ColorUtils.CYAN
                         )
                     );
                     matchChoice = scanner.nextLine().trim();
 
-                    if (!matchChoice.equals("1") && !matchChoice.equals("2")) {
-                        displayError("  Invalid choice! Please enter 1 or 2.");
+                    if (
+                        matchChoice.length() != 1 ||
+                        matchChoice.charAt(0) < '1' ||
+                        matchChoice.charAt(0) > (char) ('0' + maxMatchChoice)
+                    ) {
+                        displayError(
+                            "  Invalid choice! Please enter 1-" + maxMatchChoice + "."
+                        );
                         matchChoice = null;
                     }
                 }
-
-                if (matchChoice.equals("1")) {
-                    criteria.addExactMatch(fieldName, value);
+                boolean range = matchChoice.compareTo("5") >= 0;
+
+                String dateHint = ValidationUtils.getDateFormatHint();
+                String valuePrompt;
+                if (matchChoice.equals("4")) {
+                    valuePrompt = "  Enter values, separated by commas: ";
+                } else if (matchChoice.equals("7")) {
+                    valuePrompt = "  Enter start date " + dateHint + ": ";
+                } else if (range) {
+                    valuePrompt = "  Enter date " + dateHint + ": ";
                 } else {
-                    criteria.addPartialMatch(fieldName, value);
+                    valuePrompt = "  Enter value to search: ";
+                }
+                String value = readConditionValue(valuePrompt, range);
+
+                System.out.print(
+                    ColorUtils.colorize(
+                        "  Exclude contacts matching this condition? (y/n): ",
+                        ColorUtils.CYAN
+                    )
+                );
+                boolean exclude = scanner.nextLine().trim().equalsIgnoreCase("y");
+
+                // An excluded condition becomes a negated group of its own
+                SearchCriteria target = exclude ? new SearchCriteria() : criteria;
+                switch (matchChoice) {
+                    case "1":
+                        target.addExactMatch(fieldName, value);
+                        break;
+                    case "2":
+                        target.addPartialMatch(fieldName, value);
+                        break;
+                    case "3":
+                        target.addPrefixMatch(fieldName, value);
+                        break;
+                    case "4":
+                        target.addInList(fieldName, splitValues(value));
+                        break;
+                    case "5":
+                        target.addBefore(fieldName, value);
+                        break;
+                    case "6":
+                        target.addAfter(fieldName, value);
+                        break;
+                    default:
+                        String end = readConditionValue(
+                            "  Enter end date " + dateHint + ": ",
+                            true
+                        );
+                        target.addBetween(fieldName, value, end);
+                }
+                if (exclude) {
+                    criteria.addGroup(target.negate());
                 }
                 validConditions++;
             }
@@ -854,6 +965,64 @@ public class Tester extends BaseRole {
         }
     }
 
+    /**
+     * Reads the value of a search condition, asking again until it is not
+     * empty (and, for date ranges, a valid date).
+     *
+     * @param prompt The prompt to show
+     * @param date   true if the value must be a date in YYYY-MM-DD format
+     * @return The value
+     */
+    private String readConditionValue(String prompt, boolean date) {
+        while (true) {
+            System.out.print(ColorUtils.colorize(prompt, ColorUtils.CYAN));
+            String value = scanner.nextLine().trim();
+
+            if (value.isEmpty()) {
+                displayError("  Value cannot be empty! Please try again.");
+            } else if (date && !isDate(value)) {
+                displayError("  " + ValidationUtils.getDateError());
+            } else {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a value is a calendar date in YYYY-MM-DD format.
+     * Unlike a birth date, a range bound may lie in the future.
+     *
+     * @param value The value
+     * @return true if the value is a valid date
+     */
+    private boolean isDate(String value) {
+        try {
+            LocalDate.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Splits a comma-separated list of values, dropping empty entries.
+     *
+     * @param value The comma-separated values
+     * @return The values (at least one, as the input is not empty)
+     */
+    private List<String> splitValues(String value) {
+        List<String> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.trim().isEmpty()) {
+                values.add(part.trim());
+            }
+        }
+        if (values.isEmpty()) {
+            values.add(value);
+        }
+        return values;
+    }
+
     /**
      * Sorts contacts by a selected field.
      */
@@ -880,9 +1049,7 @@ public class Tester extends BaseRole {
             );
             System.out.println();
 
-            List<Contact> contacts = contactManager.getAllContacts();
-
-            if (contacts.isEmpty()) {
+            if (contactManager.getContactCount() == 0) {
                 displayInfo("No contacts to sort.");
                 pauseScreen();
                 return;
@@ -935,12 +1102,6 @@ public class Tester extends BaseRole {
 
             boolean ascending = orderChoice.equals("1");
 
-            List<Contact> sortedContacts = contactManager.sortContacts(
-                contacts,
-                fieldName,
-                ascending
-            );
-
             System.out.println();
             displaySuccess(
                 "Contacts sorted by " +
@@ -950,7 +1111,7 @@ public class Tester extends BaseRole {
                     ")"
             );
             System.out.println();
-            displayContactList(sortedContacts);
+            browseSortedContacts(fieldName, ascending);
 
             pauseScreen();
 
@@ -964,6 +1125,46 @@ public class Tester extends BaseRole {
         }
     }
 
+    /**
+     * Shows all contacts in sorted order page by page. Each page is sorted
+     * and cut out by the database, so only the visible rows are loaded.
+     *
+     * @param fieldName The field to sort by
+     * @param ascending true for ascending order, false for descending
+     */
+    protected void browseSortedContacts(String fieldName, boolean ascending) {
+        int offset = 0;
+        while (true) {
+            // One extra row tells us whether another page follows
+            List<Contact> page = contactManager.getContactsSorted(
+                fieldName,
+                ascending,
+                offset,
+                CONTACT_PAGE_SIZE + 1
+            );
+            boolean hasMore = page.size() > CONTACT_PAGE_SIZE;
+            if (hasMore) {
+                page = page.subList(0, CONTACT_PAGE_SIZE);
+            }
+            displayContactList(page);
+
+            if (!hasMore) {
+                return;
+            }
+
+            System.out.print(
+                ColorUtils.colorize(
+                    "Press Enter for the next page, or 'q' to stop browsing: ",
+                    ColorUtils.BRIGHT_BLACK
+                )
+            );
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            offset += CONTACT_PAGE_SIZE;
+        }
+    }
+
     /**
      * Converts field choice number to field name for search operations.
      *
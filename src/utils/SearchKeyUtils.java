@@ -0,0 +1,123 @@
+package utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SearchKeyUtils class building normalized keys for searching and sorting.
+ * Both keys are computed once per value so that later comparisons are plain
+ * String.equals / String.compareTo calls with no case or accent handling.
+ *
+ * <ul>
+ *   <li>The search key folds case with Turkish rules and removes all
+ *       diacritics ("İĞNE" and "igne" get the same key), so a search matches
+ *       regardless of how the user typed Turkish letters.</li>
+ *   <li>The collation key keeps the Turkish alphabet order
+ *       (a b c ç d e f g ğ h ı i j ... o ö p r s ş t u ü v y z) while
+ *       folding case, and orders correctly under a binary comparison.</li>
+ * </ul>
+ *
+ * @author CMPE-343 Project Group
+ * @version 1.0
+ */
+public class SearchKeyUtils {
+
+    private static final Locale TURKISH = new Locale("tr", "TR");
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Suffix placed after a base letter to sort the Turkish letter right
+     * after it. '~' is greater than every ASCII letter and digit, so "c~"
+     * (ç) sorts after "cz..." but before "d".
+     */
+    private static final char AFTER_BASE_LETTER = '~';
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SearchKeyUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Builds the search key of a value: Turkish lower case, dotless i folded
+     * into i and all diacritics removed.
+     *
+     * @param value The value (may be null)
+     * @return The search key, or null if value is null
+     */
+    public static String searchKey(String value) {
+        if (value == null) {
+            return null;
+        }
+        String lower = value.toLowerCase(TURKISH).replace('ı', 'i');
+        return stripMarks(lower);
+    }
+
+    /**
+     * Builds the collation key of a value. Comparing two collation keys with
+     * String.compareTo (or as utf8mb4_bin bytes in the database) orders the
+     * values case-insensitively in Turkish alphabetical order.
+     *
+     * @param value The value (may be null)
+     * @return The collation key, or null if value is null
+     */
+    public static String collationKey(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String lower = value.toLowerCase(TURKISH);
+        StringBuilder key = new StringBuilder(lower.length() + 4);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            switch (c) {
+                case 'ç':
+                    key.append('c').append(AFTER_BASE_LETTER);
+                    break;
+                case 'ğ':
+                    key.append('g').append(AFTER_BASE_LETTER);
+                    break;
+                case 'ı':
+                    key.append('h').append(AFTER_BASE_LETTER);
+                    break;
+                case 'ö':
+                    key.append('o').append(AFTER_BASE_LETTER);
+                    break;
+                case 'ş':
+                    key.append('s').append(AFTER_BASE_LETTER);
+                    break;
+                case 'ü':
+                    key.append('u').append(AFTER_BASE_LETTER);
+                    break;
+                default:
+                    if (c < 0x80) {
+                        key.append(c);
+                    } else {
+                        // Other accented letters sort with their base letter
+                        key.append(stripMarks(String.valueOf(c)));
+                    }
+                    break;
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Removes combining diacritical marks from a value.
+     *
+     * @param value The value
+     * @return The value without diacritics
+     */
+    private static String stripMarks(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+                return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+            }
+        }
+        return value; // Plain ASCII, nothing to strip
+    }
+}